@@ -0,0 +1,110 @@
+package com.ttsapp.benchmark;
+
+import com.ttsapp.service.audio.AudioBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ways of turning per-chunk audio into a response: copying into one array versus writing the chunks through.
+ * The sink discards bytes so only the assembly strategy is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioAssemblyBenchmark {
+
+    // A 5000-char request and a 1 MB novel, split at 4000 chars of about 400 KB of audio each
+    @Param({"2", "263"})
+    private int chunks;
+
+    @Param({"409600"})
+    private int chunkBytes;
+
+    private List<byte[]> audioChunks;
+    private AudioBuffer audio;
+
+    @Setup
+    public void setUp() {
+        audioChunks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            audioChunks.add(new byte[chunkBytes]);
+        }
+        audio = AudioBuffer.ofChunks(audioChunks);
+    }
+
+    @Benchmark
+    public byte[] byteArrayOutputStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] chunk : audioChunks) {
+            out.write(chunk);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return audio.toByteArray();
+    }
+
+    @Benchmark
+    public long writeToStream() throws IOException {
+        CountingSink sink = new CountingSink();
+        audio.writeTo((OutputStream) sink);
+        return sink.count;
+    }
+
+    @Benchmark
+    public long writeToChannel() throws IOException {
+        CountingSink sink = new CountingSink();
+        audio.writeTo((WritableByteChannel) sink);
+        return sink.count;
+    }
+
+    private static final class CountingSink extends OutputStream implements WritableByteChannel {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            count += remaining;
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ttsapp.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Deterministic inputs shared by the benchmarks: prose of a given length and PDF/DOCX documents built from it.
+ */
+final class BenchmarkData {
+
+    static final String PHRASE = "Hello, this is a short phrase to read aloud.";
+
+    private static final String[] WORDS = {
+            "the", "quiet", "river", "carried", "lanterns", "past", "sleeping", "houses", "while", "she",
+            "counted", "stars", "and", "remembered", "every", "name", "of", "her", "village", "morning"
+    };
+    private static final int LINES_PER_PAGE = 40;
+    private static final int CHARS_PER_LINE = 90;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Novel-like text of exactly {@code length} characters, with sentences and paragraph breaks.
+     */
+    static String prose(int length) {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(length + 16);
+        int wordsInSentence = 0;
+        while (text.length() < length) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            text.append(wordsInSentence == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+            if (++wordsInSentence >= 8 + random.nextInt(12)) {
+                text.append(random.nextInt(6) == 0 ? ".\n" : ". ");
+                wordsInSentence = 0;
+            } else {
+                text.append(' ');
+            }
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    static byte[] pdf(int pages) throws IOException {
+        String text = prose(pages * LINES_PER_PAGE * CHARS_PER_LINE).replace('\n', ' ');
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            int offset = 0;
+            for (int page = 0; page < pages; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(font, 9);
+                    content.setLeading(11);
+                    content.newLineAtOffset(36, 750);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        content.showText(text.substring(offset, offset + CHARS_PER_LINE));
+                        content.newLine();
+                        offset += CHARS_PER_LINE;
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    static byte[] docx(int paragraphs) throws IOException {
+        String text = prose(paragraphs * 600);
+        try (XWPFDocument document = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < paragraphs; i++) {
+                document.createParagraph().createRun().setText(text.substring(i * 600, (i + 1) * 600));
+            }
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ttsapp.benchmark;
+
+import com.ttsapp.service.FileProcessingService;
+import com.ttsapp.service.cache.ExtractionCache;
+import com.ttsapp.service.extraction.ExtractionExecutor;
+import com.ttsapp.service.extraction.PdfTextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text extraction from uploaded documents, from a few pages up to a book-sized PDF or DOCX.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileExtractionBenchmark {
+
+    @Param({"pdf", "docx", "txt"})
+    private String format;
+
+    // Pages of about 3600 characters each
+    @Param({"10", "300"})
+    private int pages;
+
+    private FileProcessingService fileProcessingService;
+    private MockMultipartFile file;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Extraction cache disabled, every invocation parses the document
+        fileProcessingService = new FileProcessingService(new PdfTextExtractor(16 * 1024 * 1024),
+                new ExtractionCache(new SimpleMeterRegistry(), "", 0),
+                new ExtractionExecutor(new SimpleMeterRegistry(), 1, 1, 5, 30000),
+                System.getProperty("java.io.tmpdir") + "/tts-benchmark-uploads", 16384, Long.MAX_VALUE,
+                Integer.MAX_VALUE);
+        byte[] content = switch (format) {
+            case "pdf" -> BenchmarkData.pdf(pages);
+            case "docx" -> BenchmarkData.docx(pages * 6);
+            default -> BenchmarkData.prose(pages * 3600).getBytes(StandardCharsets.UTF_8);
+        };
+        file = new MockMultipartFile("file", "document." + format, null, content);
+    }
+
+    @Benchmark
+    public String extractText() throws IOException {
+        return fileProcessingService.extractText(file, "benchmark");
+    }
+}
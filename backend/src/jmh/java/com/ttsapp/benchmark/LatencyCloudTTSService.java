@@ -0,0 +1,36 @@
+package com.ttsapp.benchmark;
+
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.AbstractCloudTTSService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mock provider that waits a fixed time per chunk and returns audio sized like real MP3 output,
+ * so the benchmarks measure our chunking and assembly rather than a network.
+ */
+class LatencyCloudTTSService extends AbstractCloudTTSService {
+
+    // Roughly 128 kbit/s MP3 at normal speaking rate
+    private static final int AUDIO_BYTES_PER_CHAR = 1000;
+
+    private final long latencyNanos;
+
+    LatencyCloudTTSService(long latencyMillis) {
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+    }
+
+    @Override
+    protected byte[] synthesizeChunk(TTSRequest request) {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        return new byte[request.getText().length() * AUDIO_BYTES_PER_CHAR / 10];
+    }
+
+    @Override
+    public String getProviderName() {
+        return "mock";
+    }
+}
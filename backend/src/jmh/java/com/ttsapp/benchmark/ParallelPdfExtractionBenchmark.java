@@ -0,0 +1,59 @@
+package com.ttsapp.benchmark;
+
+import com.ttsapp.service.extraction.PdfTextExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-document PDF extraction by worker count, a speedup needs as many cores as workers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelPdfExtractionBenchmark {
+
+    @Param({"1", "2", "4"})
+    private int parallelism;
+
+    @Param({"300"})
+    private int pages;
+
+    private PdfTextExtractor extractor;
+    private Path pdf;
+
+    @Setup
+    public void setUp() throws IOException {
+        extractor = new PdfTextExtractor(16 * 1024 * 1024, parallelism, 8);
+        pdf = Files.createTempFile("tts-benchmark-", ".pdf");
+        Files.write(pdf, BenchmarkData.pdf(pages));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        extractor.shutdown();
+        Files.deleteIfExists(pdf);
+    }
+
+    @Benchmark
+    public String extractText() throws IOException {
+        return extractor.extractText(pdf);
+    }
+}
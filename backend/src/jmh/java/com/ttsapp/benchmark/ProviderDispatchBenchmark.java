@@ -0,0 +1,89 @@
+package com.ttsapp.benchmark;
+
+import com.ttsapp.config.ChunkingProperties;
+import com.ttsapp.config.ResilienceProperties;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.CloudTTSService;
+import com.ttsapp.service.ProviderRegistry;
+import com.ttsapp.service.cache.AudioCache;
+import com.ttsapp.service.resilience.ProviderResilience;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving a provider through {@link ProviderRegistry} with the linear, case-insensitive scan
+ * over the injected services that the controllers used before.
+ * Run with {@code -prof gc} to see the per-request allocation of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderDispatchBenchmark {
+
+    @Param({"amazon", "Microsoft"})
+    private String provider;
+
+    private List<CloudTTSService> services;
+    private ProviderRegistry registry;
+    private ProviderResilience resilience;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        services = List.of(stub("amazon"), stub("google"), stub("microsoft"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        resilience = new ProviderResilience(new ResilienceProperties(), meterRegistry);
+        registry = new ProviderRegistry(services, new AudioCache(meterRegistry, 1024, "", 0), resilience,
+                new ChunkingProperties());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        resilience.shutdown();
+    }
+
+    @Benchmark
+    public CloudTTSService streamScan() {
+        Optional<CloudTTSService> service = services.stream()
+                .filter(s -> s.getProviderName().equalsIgnoreCase(provider))
+                .findFirst();
+        return service.orElseThrow();
+    }
+
+    @Benchmark
+    public CloudTTSService registryLookup() {
+        return registry.get(provider);
+    }
+
+    private static CloudTTSService stub(String name) {
+        return new CloudTTSService() {
+            @Override
+            public byte[] synthesizeSpeech(TTSRequest request) {
+                return new byte[0];
+            }
+
+            @Override
+            public String getProviderName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.ttsapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ttsapp.dto.TTSRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON binding of {@link TTSRequest} as done for every synthesis request, with a short and a maximum-size text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestSerializationBenchmark {
+
+    @Param({"44", "5000"})
+    private int length;
+
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private TTSRequest request;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        reader = mapper.readerFor(TTSRequest.class);
+        writer = mapper.writerFor(TTSRequest.class);
+        request = TTSRequest.builder()
+                .text(length == BenchmarkData.PHRASE.length() ? BenchmarkData.PHRASE : BenchmarkData.prose(length))
+                .provider("amazon")
+                .voiceId("Joanna")
+                .languageCode("en-US")
+                .speakingRate(1.0f)
+                .pitch(0.0f)
+                .audioQuality("high")
+                .build();
+        json = writer.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public TTSRequest deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(request);
+    }
+}
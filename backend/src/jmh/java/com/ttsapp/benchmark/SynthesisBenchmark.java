@@ -0,0 +1,69 @@
+package com.ttsapp.benchmark;
+
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.audio.AudioBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end chunked synthesis against a mock provider with a configurable per-chunk latency,
+ * buffered into memory and streamed to a client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SynthesisBenchmark {
+
+    @Param({"44", "5000", "1048576"})
+    private int length;
+
+    @Param({"0", "20"})
+    private long latencyMillis;
+
+    private LatencyCloudTTSService service;
+    private TTSRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new LatencyCloudTTSService(latencyMillis);
+        request = TTSRequest.builder()
+                .text(length == BenchmarkData.PHRASE.length() ? BenchmarkData.PHRASE : BenchmarkData.prose(length))
+                .provider(service.getProviderName())
+                .voiceId("Joanna")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdownChunkExecutor();
+    }
+
+    @Benchmark
+    public AudioBuffer synthesize() {
+        return service.synthesizeAudio(request);
+    }
+
+    @Benchmark
+    public boolean stream() throws IOException {
+        return service.streamSpeech(request, OutputStream.nullOutputStream(), new LongAdder());
+    }
+}
@@ -0,0 +1,45 @@
+package com.ttsapp.benchmark;
+
+import com.ttsapp.service.segment.SegmentLimits;
+import com.ttsapp.service.segment.TextSegmenter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting a short phrase, a maximum-size request and a 1 MB novel into provider-sized chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextSegmenterBenchmark {
+
+    @Param({"44", "5000", "1048576"})
+    private int length;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = length == BenchmarkData.PHRASE.length() ? BenchmarkData.PHRASE : BenchmarkData.prose(length);
+    }
+
+    @Benchmark
+    public List<String> segment() {
+        return TextSegmenter.segment(text, "en-US", SegmentLimits.DEFAULT);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ttsapp.config;
+
+import com.ttsapp.service.audio.AudioBuffer;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link AudioBuffer} responses chunk by chunk, so the audio is never concatenated into one array.
+ */
+public class AudioBufferHttpMessageConverter extends AbstractHttpMessageConverter<AudioBuffer> {
+
+    public AudioBufferHttpMessageConverter() {
+        super(MediaType.APPLICATION_OCTET_STREAM, MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return AudioBuffer.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected AudioBuffer readInternal(Class<? extends AudioBuffer> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("AudioBuffer is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(AudioBuffer audio, MediaType contentType) {
+        return audio.size();
+    }
+
+    @Override
+    protected void writeInternal(AudioBuffer audio, HttpOutputMessage outputMessage) throws IOException {
+        audio.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,9 @@
+package com.ttsapp.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ChunkingProperties.class)
+public class ChunkingConfig {
+}
@@ -0,0 +1,40 @@
+package com.ttsapp.config;
+
+import com.ttsapp.service.segment.SegmentLimits;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * How long texts are split into provider calls, per provider under {@code tts.chunking}.
+ * Providers without an entry in {@code providers} use the defaults below.
+ */
+@Data
+@ConfigurationProperties(prefix = "tts.chunking")
+public class ChunkingProperties {
+
+    private Map<String, Settings> providers = new LinkedHashMap<>();
+
+    public Settings forProvider(String provider) {
+        return providers.entrySet().stream()
+                .filter(e -> e.getKey().equalsIgnoreCase(provider))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseGet(Settings::new);
+    }
+
+    @Data
+    public static class Settings {
+        /** Characters sent to the provider in a single call, SSML markup included. */
+        private int maxChars = SegmentLimits.DEFAULT.maxChars();
+
+        /** UTF-8 bytes sent to the provider in a single call, or 0 when it only limits characters. */
+        private int maxBytes = SegmentLimits.DEFAULT.maxBytes();
+
+        public SegmentLimits toLimits() {
+            return new SegmentLimits(maxChars, maxBytes);
+        }
+    }
+}
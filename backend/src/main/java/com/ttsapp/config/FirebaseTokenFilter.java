@@ -1,13 +1,13 @@
 package com.ttsapp.config;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -15,6 +15,20 @@ import java.util.ArrayList;
 
 public class FirebaseTokenFilter extends OncePerRequestFilter {
 
+    private final FirebaseTokenVerifier tokenVerifier;
+    private final SecurityContextRepository securityContextRepository;
+
+    /**
+     * Authenticates requests by their Firebase ID token and keeps the result in {@code securityContextRepository}.
+     * The filter runs once per request, but a streamed response is written in a later async dispatch
+     * that loads the authentication from there.
+     */
+    public FirebaseTokenFilter(FirebaseTokenVerifier tokenVerifier,
+                               SecurityContextRepository securityContextRepository) {
+        this.tokenVerifier = tokenVerifier;
+        this.securityContextRepository = securityContextRepository;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -24,13 +38,15 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             try {
-                FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-                String uid = decodedToken.getUid();
+                String uid = tokenVerifier.verify(token);
                 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         uid, null, new ArrayList<>());
                 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+                securityContextRepository.saveContext(context, request, response);
             } catch (Exception e) {
                 // Token verification failed
                 SecurityContextHolder.clearContext();
@@ -0,0 +1,131 @@
+package com.ttsapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import com.ttsapp.service.cache.Digests;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Verifies Firebase ID tokens and remembers the verified ones until they expire.
+ * A client repeating the same token, as the mobile app does for a whole reading session,
+ * pays for the signature check once; the cache is keyed by the token's SHA-256 so raw tokens are not kept in memory.
+ */
+@Component
+public class FirebaseTokenVerifier {
+
+    private final Cache<String, VerifiedToken> verified;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer verifySuccess;
+    private final Timer verifyFailure;
+
+    @Autowired
+    public FirebaseTokenVerifier(MeterRegistry meterRegistry,
+                                 @Value("${tts.auth.token-cache.max-size:10000}") long maxSize) {
+        this(meterRegistry, maxSize, Clock.systemUTC());
+    }
+
+    FirebaseTokenVerifier(MeterRegistry meterRegistry, long maxSize, Clock clock) {
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExpiry(clock))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "auth.token");
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.verifySuccess = verifyTimer(meterRegistry, "success");
+        this.verifyFailure = verifyTimer(meterRegistry, "failure");
+    }
+
+    /**
+     * Verifies the token and resolves the uid it was issued to.
+     *
+     * @throws FirebaseAuthException when the token is invalid or expired
+     */
+    public String verify(String idToken) throws FirebaseAuthException {
+        String key = Digests.sha256Hex(idToken);
+        VerifiedToken cached = verified.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(clock.instant())) {
+            hits.increment();
+            return cached.uid();
+        }
+        misses.increment();
+
+        long start = System.nanoTime();
+        VerifiedToken token;
+        try {
+            token = verifyWithFirebase(idToken);
+        } catch (FirebaseAuthException | RuntimeException e) {
+            verifyFailure.record(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        }
+        verifySuccess.record(Duration.ofNanos(System.nanoTime() - start));
+
+        if (token.expiresAt().isAfter(clock.instant())) {
+            verified.put(key, token);
+        }
+        return token.uid();
+    }
+
+    /**
+     * Performs the full signature and claims check; the SDK caches Google's public keys for their max-age.
+     */
+    protected VerifiedToken verifyWithFirebase(String idToken) throws FirebaseAuthException {
+        FirebaseToken token = FirebaseAuth.getInstance().verifyIdToken(idToken);
+        Object exp = token.getClaims().get("exp");
+        Instant expiresAt = exp instanceof Number seconds ? Instant.ofEpochSecond(seconds.longValue()) : Instant.MIN;
+        return new VerifiedToken(token.getUid(), expiresAt);
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("auth.token.cache.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("auth.token.verify")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    protected record VerifiedToken(String uid, Instant expiresAt) {
+    }
+
+    private record ExpireAtTokenExpiry(Clock clock) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ttsapp.config;
+
+import com.ttsapp.service.ratelimit.BucketStore;
+import com.ttsapp.service.ratelimit.LocalBucketStore;
+import com.ttsapp.service.ratelimit.PostgresBucketStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    @DependsOnDatabaseInitialization
+    public BucketStore bucketStore(RateLimitProperties properties, DataSource dataSource) {
+        if (properties.getStore() == RateLimitProperties.Store.POSTGRES) {
+            return new PostgresBucketStore(dataSource, properties.getIdleTimeout());
+        }
+        return new LocalBucketStore(properties.getIdleTimeout(), properties.getMaxLocalBuckets());
+    }
+
+    /**
+     * Creates the shared bucket table before the store first uses it, like Spring Boot does for its own schemas.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "tts.rate-limit", name = "store", havingValue = "postgres")
+    public DataSourceScriptDatabaseInitializer rateLimitSchemaInitializer(DataSource dataSource,
+                                                                          RateLimitProperties properties) {
+        DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+        settings.setSchemaLocations(List.of(PostgresBucketStore.SCHEMA_LOCATION));
+        settings.setMode(properties.getInitializeSchema());
+        return new DataSourceScriptDatabaseInitializer(dataSource, settings);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ttsapp.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limits under {@code tts.rate-limit}, per endpoint path prefix and per TTS provider.
+ */
+@Data
+@ConfigurationProperties(prefix = "tts.rate-limit")
+public class RateLimitProperties {
+
+    public enum Store { LOCAL, POSTGRES }
+
+    private Store store = Store.LOCAL;
+
+    /** Whether the postgres store creates its table on startup; use never when the schema is managed elsewhere. */
+    private DatabaseInitializationMode initializeSchema = DatabaseInitializationMode.ALWAYS;
+
+    /** Buckets untouched for this long are dropped; keep it at least as long as the longest refill period. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /** Upper bound on buckets held by the local store. */
+    private long maxLocalBuckets = 100_000;
+
+    /** Limits keyed by request path prefix; the longest matching prefix applies. */
+    private Map<String, Limit> endpoints = new LinkedHashMap<>();
+
+    /**
+     * Budget of synthesized characters per user, each character weighted by its price tier
+     * (a premium-voice character counts as four standard ones). Unset disables it.
+     */
+    private Limit characters;
+
+    /** Limits keyed by provider name, applied on top of the endpoint limit. */
+    private Map<String, Limit> providers = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private long capacity;
+        private Duration period;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ttsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-provider isolation settings under {@code tts.resilience}.
+ * Providers without an entry in {@code providers} use the defaults below.
+ */
+@Data
+@ConfigurationProperties(prefix = "tts.resilience")
+public class ResilienceProperties {
+
+    private Map<String, Settings> providers = new LinkedHashMap<>();
+
+    public Settings forProvider(String provider) {
+        return providers.entrySet().stream()
+                .filter(e -> e.getKey().equalsIgnoreCase(provider))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseGet(Settings::new);
+    }
+
+    @Data
+    public static class Settings {
+        /** Calls to the provider running at the same time. */
+        private int maxConcurrentCalls = 16;
+
+        /** Calls waiting for a free slot before new ones are rejected. */
+        private int queueCapacity = 32;
+
+        /** Deadline for a buffered synthesis call, including time spent queued. */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        /** Deadline for a streamed synthesis, which writes to the client as it goes. */
+        private Duration streamTimeout = Duration.ofMinutes(5);
+
+        /** Failure percentage over the sliding window that opens the circuit. */
+        private float failureRateThreshold = 50;
+
+        /** Calls in the circuit breaker's sliding window. */
+        private int slidingWindowSize = 20;
+
+        /** How long the circuit stays open before letting trial calls through. */
+        private Duration waitInOpenState = Duration.ofSeconds(30);
+
+        /** Errors caused by the request rather than the provider, which do not count towards opening the circuit. */
+        private List<Class<? extends Throwable>> ignoreExceptions = new ArrayList<>(
+                List.of(IllegalArgumentException.class));
+    }
+}
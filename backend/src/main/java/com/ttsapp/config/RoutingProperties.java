@@ -0,0 +1,40 @@
+package com.ttsapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cross-provider routing of synthesis requests under {@code tts.routing}.
+ */
+@Data
+@ConfigurationProperties(prefix = "tts.routing")
+public class RoutingProperties {
+
+    private boolean enabled = false;
+
+    /** Retry on an equivalent voice of another provider when the requested provider fails. */
+    private boolean failover = true;
+
+    /** Send a second request to an equivalent voice when the first is slower than usual. */
+    private boolean hedge = true;
+
+    /** Latency percentile of the requested provider after which the hedged request is sent. */
+    private double hedgePercentile = 0.95;
+
+    /** Lower bound of the hedge delay, so fast providers are not hedged on noise. */
+    private Duration minHedgeDelay = Duration.ofMillis(200);
+
+    /** Hedge delay used until a provider has enough latency samples. */
+    private Duration defaultHedgeDelay = Duration.ofSeconds(2);
+
+    /** Equivalent voices tried besides the requested one. */
+    private int maxAlternates = 1;
+
+    /** Recent calls per provider the latency percentiles are computed from. */
+    private int latencyWindow = 100;
+
+    /** Threads running routed calls; requests beyond this are sent to the requested provider only. */
+    private int maxThreads = 64;
+}
@@ -1,6 +1,7 @@
 package com.ttsapp.config;
 
 import com.ttsapp.filter.RateLimitingFilter;
+import com.ttsapp.service.ratelimit.RateLimiter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -10,6 +11,8 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -22,18 +25,23 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, FirebaseTokenVerifier tokenVerifier,
+                                           RateLimiter rateLimiter) throws Exception {
+        // Request-scoped, so the async dispatch that writes a streamed response is still authenticated
+        SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
         http
             .cors(Customizer.withDefaults())
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .securityContext(context -> context.securityContextRepository(securityContextRepository))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(new FirebaseTokenFilter(), UsernamePasswordAuthenticationFilter.class)
-            .addFilterAfter(new RateLimitingFilter(), FirebaseTokenFilter.class);
+            .addFilterBefore(new FirebaseTokenFilter(tokenVerifier, securityContextRepository),
+                    UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new RateLimitingFilter(rateLimiter), FirebaseTokenFilter.class);
         return http.build();
     }
 
@@ -1,11 +1,15 @@
 package com.ttsapp.controller;
 
+import com.ttsapp.dto.SynthesisResult;
 import com.ttsapp.dto.TTSRequest;
 import com.ttsapp.model.User;
 import com.ttsapp.service.CloudTTSService;
+import com.ttsapp.service.ProviderRegistry;
 import com.ttsapp.service.UsageService;
+import com.ttsapp.service.UserNotFoundException;
 import com.ttsapp.service.UserService;
-import lombok.RequiredArgsConstructor;
+import com.ttsapp.service.audio.AudioBuffer;
+import com.ttsapp.service.routing.ProviderRouter;
 import lombok.extern.slf4j.Slf4j;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpHeaders;
@@ -15,49 +19,112 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @RestController
 @RequestMapping("/api/tts")
-@RequiredArgsConstructor
 @Slf4j
 public class CloudTTSController {
 
-    private final List<CloudTTSService> ttsServices;
+    private final ProviderRegistry providerRegistry;
+    private final ProviderRouter providerRouter;
     private final UsageService usageService;
     private final UserService userService;
 
+    public CloudTTSController(ProviderRegistry providerRegistry, ProviderRouter providerRouter,
+                              UsageService usageService, UserService userService) {
+        this.providerRegistry = providerRegistry;
+        this.providerRouter = providerRouter;
+        this.usageService = usageService;
+        this.userService = userService;
+    }
+
     @PostMapping("/synthesize")
-    public ResponseEntity<byte[]> synthesize(Principal principal, @Valid @RequestBody TTSRequest request) {
+    public ResponseEntity<AudioBuffer> synthesize(Principal principal, @Valid @RequestBody TTSRequest request) {
         String firebaseUid = principal.getName();
         log.info("Received TTS synthesis request for user: {} with provider: {}", firebaseUid, request.getProvider());
         
-        User user = userService.getUserByFirebaseUid(firebaseUid)
-                .orElseThrow(() -> {
-                    log.error("User not found for UID: {}", firebaseUid);
-                    return new RuntimeException("User not found");
-                });
-
-        CloudTTSService service = ttsServices.stream()
-                .filter(s -> s.getProviderName().equalsIgnoreCase(request.getProvider()))
-                .findFirst()
-                .orElseThrow(() -> {
-                    log.error("Provider not found: {}", request.getProvider());
-                    return new RuntimeException("Provider not found: " + request.getProvider());
-                });
+        User user = findUser(firebaseUid);
+        CloudTTSService service = providerRegistry.get(request.getProvider());
 
         log.debug("Synthesizing speech for provider: {}", request.getProvider());
-        byte[] audioData = service.synthesizeSpeech(request);
+        SynthesisResult result = providerRouter.isEnabled()
+                ? providerRouter.synthesize(request, providerRegistry::find)
+                : service.synthesize(request);
+        // Bill the provider that actually served the request
+        String servedBy = result.getProvider() != null ? result.getProvider() : request.getProvider();
+        logUsage(user, Map.of(servedBy, result.getSynthesizedCharacters()));
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"speech.mp3\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(result.getAudio());
+    }
 
-        // Log usage
-        log.info("Logging usage for user: {} - {} characters", user.getEmail(), request.getText().length());
-        usageService.logUsage(user, request.getProvider(), request.getText().length());
+    @PostMapping("/synthesize/stream")
+    public ResponseEntity<StreamingResponseBody> synthesizeStream(Principal principal,
+                                                                  @Valid @RequestBody TTSRequest request) {
+        String firebaseUid = principal.getName();
+        log.info("Received TTS streaming request for user: {} with provider: {}", firebaseUid, request.getProvider());
+
+        User user = findUser(firebaseUid);
+        CloudTTSService service = providerRegistry.get(request.getProvider());
+
+        StreamingResponseBody body = out -> {
+            Map<String, LongAdder> synthesized = new ConcurrentHashMap<>();
+            try {
+                if (providerRouter.isEnabled()) {
+                    providerRouter.streamSpeech(request, providerRegistry::find, out,
+                            provider -> synthesized.computeIfAbsent(provider, p -> new LongAdder()));
+                } else {
+                    service.streamSpeech(request, out,
+                            synthesized.computeIfAbsent(request.getProvider(), p -> new LongAdder()));
+                }
+            } finally {
+                // Bill what was synthesized even when the stream broke off, the provider charged for it
+                Map<String, Long> usage = new HashMap<>();
+                synthesized.forEach((provider, characters) -> usage.put(provider, characters.sum()));
+                logUsage(user, usage);
+            }
+        };
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"speech.mp3\"")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(audioData);
+                .body(body);
+    }
+
+    private User findUser(String firebaseUid) {
+        User user = userService.getUserReference(firebaseUid).orElse(null);
+        if (user == null) {
+            log.error("User not found for UID: {}", firebaseUid);
+            throw new UserNotFoundException();
+        }
+        return user;
+    }
+
+    /**
+     * Bills each provider for the characters it synthesized.
+     * Cached audio was already paid for, so a request served entirely from cache bills nothing.
+     */
+    private void logUsage(User user, Map<String, Long> synthesizedByProvider) {
+        boolean billed = false;
+        for (Map.Entry<String, Long> entry : synthesizedByProvider.entrySet()) {
+            if (entry.getValue() > 0) {
+                log.info("Logging usage for user: {} - {} characters with {}", user.getId(), entry.getValue(),
+                        entry.getKey());
+                usageService.logUsage(user, entry.getKey(), entry.getValue().intValue());
+                billed = true;
+            }
+        }
+        if (!billed) {
+            log.info("Served cached audio for user: {}", user.getId());
+        }
     }
 }
@@ -1,16 +1,27 @@
 package com.ttsapp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ttsapp.dto.ExtractedPart;
 import com.ttsapp.service.FileProcessingService;
+import com.ttsapp.service.extraction.DocumentFormat;
+import com.ttsapp.service.extraction.TextSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,13 +31,17 @@ import java.util.Map;
 @Slf4j
 public class FileController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final FileProcessingService fileProcessingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/extract-text")
-    public ResponseEntity<Map<String, String>> extractText(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, String>> extractText(@AuthenticationPrincipal String firebaseUid,
+                                                           @RequestParam("file") MultipartFile file) {
         log.info("Received file extraction request for: {}", file.getOriginalFilename());
         try {
-            String text = fileProcessingService.extractText(file);
+            String text = fileProcessingService.extractText(file, firebaseUid);
             Map<String, String> response = new HashMap<>();
             response.put("text", text);
             response.put("filename", file.getOriginalFilename());
@@ -43,4 +58,63 @@ public class FileController {
             return ResponseEntity.internalServerError().body(error);
         }
     }
+
+    /**
+     * Answers with the text of a document the caller uploaded before, identified by the SHA-256 of its content,
+     * so the client can skip the upload. Not found means the file has to be uploaded.
+     */
+    @GetMapping("/extract-text/{sha256}")
+    public ResponseEntity<Map<String, String>> getExtractedText(@AuthenticationPrincipal String firebaseUid,
+                                                                @PathVariable String sha256,
+                                                                @RequestParam String filename) {
+        DocumentFormat format = DocumentFormat.of(filename);
+        return fileProcessingService.findExtractedText(format, sha256, firebaseUid)
+                .map(text -> {
+                    Map<String, String> response = new HashMap<>();
+                    response.put("text", text);
+                    response.put("filename", filename);
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams the extracted text as newline-delimited JSON, one record per PDF page or per run of paragraphs,
+     * each written as soon as it is extracted. Only the part being extracted is held in memory.
+     */
+    @PostMapping("/extract-text/stream")
+    public ResponseEntity<StreamingResponseBody> extractTextStream(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "1") int firstPage,
+            @RequestParam(required = false) Integer lastPage) throws IOException {
+        log.info("Received streaming extraction request for: {}", file.getOriginalFilename());
+        if (firstPage < 1 || (lastPage != null && lastPage < firstPage)) {
+            throw new IllegalArgumentException("Invalid page range: " + firstPage + "-" + lastPage);
+        }
+        DocumentFormat format = DocumentFormat.of(file.getOriginalFilename());
+        // Spooled on the request thread, the multipart upload may be cleaned up before the body is written
+        Path spooled = fileProcessingService.spool(file, format).path();
+        TextSource source;
+        try {
+            // Admitted and queued before the response starts, so a refusal still gets its own status
+            source = fileProcessingService.stream(spooled, format, firstPage,
+                    lastPage != null ? lastPage : Integer.MAX_VALUE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        StreamingResponseBody body = out -> {
+            try (source) {
+                for (ExtractedPart part = source.next(); part != null; part = source.next()) {
+                    out.write(objectMapper.writeValueAsBytes(part));
+                    out.write('\n');
+                    out.flush();
+                }
+            } finally {
+                Files.deleteIfExists(spooled);
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
 }
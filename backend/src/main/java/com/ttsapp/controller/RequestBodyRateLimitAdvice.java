@@ -0,0 +1,80 @@
+package com.ttsapp.controller;
+
+import com.ttsapp.dto.TTSJobRequest;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.PricingTier;
+import com.ttsapp.service.VoiceService;
+import com.ttsapp.service.ratelimit.RateLimitExceededException;
+import com.ttsapp.service.ratelimit.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Enforces the rate limits that depend on the request body, using the body Spring has already deserialized.
+ * Synthesis requests and jobs are charged by characters weighted with the voice's price tier,
+ * so the limit tracks real cost.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class RequestBodyRateLimitAdvice extends RequestBodyAdviceAdapter {
+
+    private final RateLimiter rateLimiter;
+    private final VoiceService voiceService;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == TTSRequest.class || targetType == TTSJobRequest.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof String uid)) {
+            return body;
+        }
+
+        String provider = body instanceof TTSRequest request ? request.getProvider()
+                : body instanceof TTSJobRequest jobRequest ? jobRequest.getProvider() : null;
+        if (provider != null && !rateLimiter.tryConsumeProvider(uid, provider)) {
+            throw new RateLimitExceededException("Rate limit exceeded for provider " + provider
+                    + ". Please try again later.");
+        }
+
+        try {
+            if (body instanceof TTSRequest request) {
+                consumeCharacters(uid, provider, request.getVoiceId(), request.getAudioQuality(), request.getText());
+            } else if (body instanceof TTSJobRequest jobRequest) {
+                // Jobs carry the longest texts, they draw from the same budget as direct synthesis
+                consumeCharacters(uid, provider, jobRequest.getVoiceId(), jobRequest.getAudioQuality(),
+                        jobRequest.getText());
+            }
+        } catch (RateLimitExceededException e) {
+            // The request never reaches the provider, so it should not count against the provider limit
+            if (provider != null) {
+                rateLimiter.refundProvider(uid, provider);
+            }
+            throw e;
+        }
+        return body;
+    }
+
+    private void consumeCharacters(String uid, String provider, String voiceId, String audioQuality, String text) {
+        if (text == null) {
+            return;
+        }
+        PricingTier tier = voiceService.getPricingTier(provider, voiceId, audioQuality);
+        if (!rateLimiter.tryConsumeCharacters(uid, (long) text.length() * tier.getWeight())) {
+            throw new RateLimitExceededException("Character rate limit exceeded. Please try again in a minute.");
+        }
+    }
+}
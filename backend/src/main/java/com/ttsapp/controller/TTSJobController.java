@@ -0,0 +1,75 @@
+package com.ttsapp.controller;
+
+import com.ttsapp.dto.TTSJobRequest;
+import com.ttsapp.dto.TTSJobStatus;
+import com.ttsapp.model.TTSJob;
+import com.ttsapp.model.User;
+import com.ttsapp.service.TTSJobService;
+import com.ttsapp.service.UserNotFoundException;
+import com.ttsapp.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/tts/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class TTSJobController {
+
+    private final TTSJobService jobService;
+    private final UserService userService;
+
+    @PostMapping
+    public ResponseEntity<TTSJobStatus> createJob(Principal principal, @Valid @RequestBody TTSJobRequest request) {
+        String firebaseUid = principal.getName();
+        log.info("Received TTS job for user: {} with provider: {} ({} characters)",
+                firebaseUid, request.getProvider(), request.getText().length());
+
+        User user = userService.getUserReference(firebaseUid)
+                .orElseThrow(UserNotFoundException::new);
+
+        TTSJob job = jobService.createJob(user, request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tts/jobs/" + job.getId()))
+                .body(TTSJobStatus.from(job));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TTSJobStatus> getJob(Principal principal, @PathVariable UUID id) {
+        return jobService.getJob(id, principal.getName())
+                .map(job -> ResponseEntity.ok(TTSJobStatus.from(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/audio")
+    public ResponseEntity<Resource> getJobAudio(Principal principal, @PathVariable UUID id) {
+        return jobService.getJob(id, principal.getName())
+                .map(job -> {
+                    if (job.getStatus() != TTSJob.Status.COMPLETED) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).<Resource>build();
+                    }
+                    return ResponseEntity.ok()
+                            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + id + ".mp3\"")
+                            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                            .<Resource>body(new FileSystemResource(jobService.getAudioFile(job)));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,42 +1,55 @@
 package com.ttsapp.controller;
 
-import com.ttsapp.model.TTSUsage;
+import com.ttsapp.dto.UsageHistoryPage;
 import com.ttsapp.model.User;
 import com.ttsapp.service.UsageService;
+import com.ttsapp.service.UserNotFoundException;
 import com.ttsapp.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/usage")
 @RequiredArgsConstructor
 public class UsageController {
+    private static final int SUMMARY_DAYS = 30;
+
     private final UsageService usageService;
     private final UserService userService;
 
     @GetMapping("/history")
-    public ResponseEntity<List<TTSUsage>> getUsageHistory(@AuthenticationPrincipal String firebaseUid) {
-        User user = userService.getUserByFirebaseUid(firebaseUid)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return ResponseEntity.ok(usageService.getUserUsage(user));
+    public ResponseEntity<UsageHistoryPage> getUsageHistory(
+            @AuthenticationPrincipal String firebaseUid,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String provider,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        User user = userService.getUserReference(firebaseUid)
+                .orElseThrow(UserNotFoundException::new);
+        return ResponseEntity.ok(usageService.getUsageHistory(user, from, to, provider, cursor, limit));
     }
 
     @GetMapping("/summary")
     public ResponseEntity<Map<String, Object>> getUsageSummary(@AuthenticationPrincipal String firebaseUid) {
-        User user = userService.getUserByFirebaseUid(firebaseUid)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userService.getUserReference(firebaseUid)
+                .orElseThrow(UserNotFoundException::new);
         
         Map<String, Object> summary = new HashMap<>();
         summary.put("totalCost", usageService.getTotalCost(user));
-        summary.put("history", usageService.getUserUsage(user));
+        summary.put("providers", usageService.getProviderTotals(user));
+        summary.put("daily", usageService.getDailyUsage(user, LocalDate.now().minusDays(SUMMARY_DAYS)));
         
         return ResponseEntity.ok(summary);
     }
@@ -1,16 +1,22 @@
 package com.ttsapp.controller;
 
-import com.ttsapp.dto.VoiceDTO;
+import com.ttsapp.service.VoiceCatalog;
 import com.ttsapp.service.VoiceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
-
+/**
+ * Serves the voice catalog from the bodies serialized with each catalog snapshot.
+ * Every response carries a strong ETag, so a client sending it back in If-None-Match gets 304
+ * until the catalog changes.
+ */
 @RestController
 @RequestMapping("/api/voices")
 @RequiredArgsConstructor
@@ -19,17 +25,29 @@ public class VoiceController {
     private final VoiceService voiceService;
 
     @GetMapping
-    public ResponseEntity<List<VoiceDTO>> getAllVoices() {
-        return ResponseEntity.ok(voiceService.getAllVoices());
+    public ResponseEntity<byte[]> getAllVoices(WebRequest request) {
+        return respond(voiceService.getCatalog().getVoicesJson(), request);
     }
 
     @GetMapping("/{provider}")
-    public ResponseEntity<List<VoiceDTO>> getVoicesByProvider(@PathVariable String provider) {
-        return ResponseEntity.ok(voiceService.getVoicesByProvider(provider));
+    public ResponseEntity<byte[]> getVoicesByProvider(@PathVariable String provider, WebRequest request) {
+        return respond(voiceService.getCatalog().getVoicesJson(provider), request);
     }
 
     @GetMapping("/languages")
-    public ResponseEntity<List<String>> getLanguages() {
-        return ResponseEntity.ok(voiceService.getLanguages());
+    public ResponseEntity<byte[]> getLanguages(WebRequest request) {
+        return respond(voiceService.getCatalog().getLanguagesJson(), request);
+    }
+
+    private static ResponseEntity<byte[]> respond(VoiceCatalog.Json json, WebRequest request) {
+        if (request.checkNotModified(json.etag())) {
+            // Status and ETag are already set on the response
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(json.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(json.body());
     }
 }
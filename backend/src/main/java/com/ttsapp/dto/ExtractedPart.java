@@ -0,0 +1,17 @@
+package com.ttsapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One record of a streamed text extraction: a PDF page, or a run of paragraphs or lines of other formats.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractedPart {
+    private Integer index; // 1-based position in the stream
+    private Integer page; // PDF page number, null for other formats
+    private String text;
+}
@@ -0,0 +1,24 @@
+package com.ttsapp.dto;
+
+import com.ttsapp.service.audio.AudioBuffer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SynthesisResult {
+    private AudioBuffer audio;
+    private boolean cached; // true when served without calling the provider
+    private String provider; // set when routing served the request from another provider than requested
+    private long synthesizedCharacters; // characters actually sent to the provider, cached chunks excluded
+
+    public SynthesisResult(AudioBuffer audio, boolean cached) {
+        this(audio, cached, null, 0);
+    }
+
+    public SynthesisResult(AudioBuffer audio, long synthesizedCharacters) {
+        this(audio, false, null, synthesizedCharacters);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ttsapp.dto;
+
+import com.ttsapp.model.TTSJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TTSJobStatus {
+    private UUID id;
+    private TTSJob.Status status;
+    private Integer totalChunks;
+    private Integer completedChunks;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public static TTSJobStatus from(TTSJob job) {
+        return TTSJobStatus.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .totalChunks(job.getTotalChunks())
+                .completedChunks(job.getCompletedChunks())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
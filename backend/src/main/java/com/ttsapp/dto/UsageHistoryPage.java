@@ -0,0 +1,15 @@
+package com.ttsapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageHistoryPage {
+    private List<UsageRecord> items;
+    private String nextCursor; // null on the last page
+}
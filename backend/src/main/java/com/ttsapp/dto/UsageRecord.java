@@ -0,0 +1,18 @@
+package com.ttsapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageRecord {
+    private Long id;
+    private String provider;
+    private Integer characterCount;
+    private Double estimatedCost;
+    private LocalDateTime createdAt;
+}
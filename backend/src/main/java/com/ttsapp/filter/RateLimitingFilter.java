@@ -1,9 +1,6 @@
 package com.ttsapp.filter;
 
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bucket4j;
-import io.github.bucket4j.Refill;
-import io.github.bucket4j.Bandwidth;
+import com.ttsapp.service.ratelimit.RateLimiter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,31 +11,25 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
 
-    private Bucket createNewBucket() {
-        // Limit: 20 requests per minute
-        Bandwidth limit = Bandwidth.classic(20, Refill.greedy(20, Duration.ofMinutes(1)));
-        return Bucket4j.builder().addLimit(limit).build();
+    public RateLimitingFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
-        // Only rate limit the synthesize endpoint which is costly
-        if (request.getRequestURI().startsWith("/api/tts/synthesize")) {
+        // Only the endpoints with a configured limit are rate limited, typically the costly synthesis ones
+        String endpoint = rateLimiter.matchEndpoint(request.getRequestURI());
+        if (endpoint != null) {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication != null && authentication.getPrincipal() instanceof String firebaseUid) {
-                Bucket bucket = buckets.computeIfAbsent(firebaseUid, k -> createNewBucket());
-
-                if (bucket.tryConsume(1)) {
+                if (rateLimiter.tryConsumeEndpoint(firebaseUid, endpoint)) {
                     filterChain.doFilter(request, response);
                 } else {
                     response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
@@ -0,0 +1,50 @@
+package com.ttsapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-provider, per-day totals of {@link TTSUsage}, maintained as usage is written.
+ */
+@Entity
+@Table(name = "tts_usage_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_tts_usage_daily",
+                columnNames = {"user_id", "provider", "usage_date"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String provider;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(nullable = false)
+    private Long requestCount;
+
+    @Column(nullable = false)
+    private Long characterCount;
+
+    @Column(nullable = false)
+    private Double estimatedCost;
+}
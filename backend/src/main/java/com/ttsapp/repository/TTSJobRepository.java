@@ -0,0 +1,74 @@
+package com.ttsapp.repository;
+
+import com.ttsapp.model.TTSJob;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TTSJobRepository extends JpaRepository<TTSJob, UUID> {
+    Optional<TTSJob> findByIdAndUserFirebaseUid(UUID id, String firebaseUid);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<TTSJob> findWithUserById(UUID id);
+
+    /**
+     * Lists unfinished jobs no other live instance holds: unowned, owned by {@code owner}, or with an expired lease.
+     */
+    @Query("select j.id from TTSJob j where j.status in :statuses "
+            + "and (j.owner is null or j.owner = :owner or j.leaseExpiresAt < :now)")
+    List<UUID> findClaimableIds(@Param("statuses") Collection<TTSJob.Status> statuses, @Param("owner") String owner,
+                                @Param("now") LocalDateTime now);
+
+    /**
+     * Takes a job over for {@code owner} unless another live instance holds it; 1 when the job was claimed.
+     */
+    @Transactional
+    @Modifying
+    @Query("update TTSJob j set j.owner = :owner, j.leaseExpiresAt = :leaseExpiresAt where j.id = :id "
+            + "and j.status in :statuses and (j.owner is null or j.owner = :owner or j.leaseExpiresAt < :now)")
+    int claim(@Param("id") UUID id, @Param("statuses") Collection<TTSJob.Status> statuses,
+              @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update TTSJob j set j.leaseExpiresAt = :leaseExpiresAt where j.owner = :owner and j.status in :statuses")
+    int renewLeases(@Param("owner") String owner, @Param("statuses") Collection<TTSJob.Status> statuses,
+                    @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Query("select coalesce(j.billedCharacters, 0) from TTSJob j where j.id = :id")
+    long findBilledCharacters(@Param("id") UUID id);
+
+    @Transactional
+    @Modifying
+    @Query("update TTSJob j set j.status = :status, j.completedChunks = :completed, j.updatedAt = :now "
+            + "where j.id = :id")
+    void updateProgress(@Param("id") UUID id, @Param("status") TTSJob.Status status,
+                        @Param("completed") int completed, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update TTSJob j set j.completedChunks = j.completedChunks + 1, "
+            + "j.billedCharacters = coalesce(j.billedCharacters, 0) + :characters, j.updatedAt = :now where j.id = :id")
+    void incrementCompletedChunks(@Param("id") UUID id, @Param("characters") long characters,
+                                  @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update TTSJob j set j.status = :status, "
+            + "j.completedChunks = coalesce(:completed, j.completedChunks), j.errorMessage = :error, "
+            + "j.updatedAt = :now, j.completedAt = :now where j.id = :id")
+    void finish(@Param("id") UUID id, @Param("status") TTSJob.Status status, @Param("completed") Integer completed,
+                @Param("error") String error, @Param("now") LocalDateTime now);
+}
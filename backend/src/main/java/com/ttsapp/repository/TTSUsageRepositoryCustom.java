@@ -0,0 +1,13 @@
+package com.ttsapp.repository;
+
+import com.ttsapp.dto.UsageRecord;
+
+import java.util.List;
+
+public interface TTSUsageRepositoryCustom {
+
+    /**
+     * Reads one page of usage rows as projections, continuing strictly after the query's keyset position.
+     */
+    List<UsageRecord> findHistoryPage(UsageHistoryQuery query);
+}
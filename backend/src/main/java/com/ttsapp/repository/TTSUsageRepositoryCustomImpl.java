@@ -0,0 +1,58 @@
+package com.ttsapp.repository;
+
+import com.ttsapp.dto.UsageRecord;
+import com.ttsapp.model.TTSUsage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TTSUsageRepositoryCustomImpl implements TTSUsageRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UsageRecord> findHistoryPage(UsageHistoryQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UsageRecord> cq = cb.createQuery(UsageRecord.class);
+        Root<TTSUsage> usage = cq.from(TTSUsage.class);
+        Path<LocalDateTime> createdAt = usage.get("createdAt");
+        Path<Long> id = usage.get("id");
+
+        // Filter on the foreign key column directly, the user row itself is never needed
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(usage.get("user").get("id"), query.getUserId()));
+        if (query.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            predicates.add(cb.lessThan(createdAt, query.getTo()));
+        }
+        if (query.getProvider() != null) {
+            predicates.add(cb.equal(usage.get("provider"), query.getProvider()));
+        }
+        if (query.getAfterCreatedAt() != null) {
+            // Keyset: everything older than the last row returned, with id breaking ties on equal timestamps
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, query.getAfterCreatedAt()),
+                    cb.and(cb.equal(createdAt, query.getAfterCreatedAt()), cb.lessThan(id, query.getAfterId()))));
+        }
+
+        cq.select(cb.construct(UsageRecord.class, id, usage.get("provider"), usage.get("characterCount"),
+                        usage.get("estimatedCost"), createdAt))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(query.getLimit())
+                .getResultList();
+    }
+}
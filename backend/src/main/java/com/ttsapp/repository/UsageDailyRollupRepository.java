@@ -0,0 +1,61 @@
+package com.ttsapp.repository;
+
+import com.ttsapp.model.UsageDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface UsageDailyRollupRepository extends JpaRepository<UsageDailyRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO tts_usage_daily "
+            + "(user_id, provider, usage_date, request_count, character_count, estimated_cost) "
+            + "VALUES (:userId, :provider, :usageDate, :requests, :characters, :cost) "
+            + "ON CONFLICT (user_id, provider, usage_date) DO UPDATE SET "
+            + "request_count = tts_usage_daily.request_count + EXCLUDED.request_count, "
+            + "character_count = tts_usage_daily.character_count + EXCLUDED.character_count, "
+            + "estimated_cost = tts_usage_daily.estimated_cost + EXCLUDED.estimated_cost",
+            nativeQuery = true)
+    void addUsage(@Param("userId") Long userId, @Param("provider") String provider,
+                  @Param("usageDate") LocalDate usageDate, @Param("requests") long requests,
+                  @Param("characters") long characters, @Param("cost") double cost);
+
+    @Modifying
+    @Query(value = "INSERT INTO tts_usage_daily "
+            + "(user_id, provider, usage_date, request_count, character_count, estimated_cost) "
+            + "SELECT user_id, provider, CAST(created_at AS DATE), COUNT(*), SUM(character_count), "
+            + "SUM(estimated_cost) FROM tts_usage GROUP BY user_id, provider, CAST(created_at AS DATE)",
+            nativeQuery = true)
+    int rebuildFromUsage();
+
+    @Modifying
+    @Query(value = "LOCK TABLE tts_usage_daily IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Query("select coalesce(sum(r.estimatedCost), 0) from UsageDailyRollup r where r.userId = :userId")
+    Double sumEstimatedCost(@Param("userId") Long userId);
+
+    @Query("select r.provider as provider, sum(r.requestCount) as requestCount, "
+            + "sum(r.characterCount) as characterCount, sum(r.estimatedCost) as estimatedCost "
+            + "from UsageDailyRollup r where r.userId = :userId group by r.provider")
+    List<ProviderUsageTotal> findProviderTotals(@Param("userId") Long userId);
+
+    List<UsageDailyRollup> findByUserIdAndUsageDateGreaterThanEqualOrderByUsageDateDesc(Long userId,
+                                                                                       LocalDate since);
+
+    interface ProviderUsageTotal {
+        String getProvider();
+
+        Long getRequestCount();
+
+        Long getCharacterCount();
+
+        Double getEstimatedCost();
+    }
+}
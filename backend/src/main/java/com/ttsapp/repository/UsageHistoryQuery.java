@@ -0,0 +1,21 @@
+package com.ttsapp.repository;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter and keyset position for reading one page of a user's usage history, newest first.
+ */
+@Value
+@Builder
+public class UsageHistoryQuery {
+    Long userId;
+    LocalDateTime from;
+    LocalDateTime to;
+    String provider;
+    LocalDateTime afterCreatedAt;
+    Long afterId;
+    int limit;
+}
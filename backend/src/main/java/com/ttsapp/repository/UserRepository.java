@@ -2,6 +2,8 @@ package com.ttsapp.repository;
 
 import com.ttsapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +12,8 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByFirebaseUid(String firebaseUid);
 
+    @Query("select u.id from User u where u.firebaseUid = :firebaseUid")
+    Optional<Long> findIdByFirebaseUid(@Param("firebaseUid") String firebaseUid);
+
     Optional<User> findByEmail(String email);
 }
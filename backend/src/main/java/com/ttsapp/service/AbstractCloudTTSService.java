@@ -1,74 +1,229 @@
 package com.ttsapp.service;
 
+import com.ttsapp.config.ChunkingProperties;
+import com.ttsapp.dto.SynthesisResult;
 import com.ttsapp.dto.TTSRequest;
-import java.io.ByteArrayOutputStream;
+import com.ttsapp.service.audio.AudioBuffer;
+import com.ttsapp.service.cache.ChunkAudioCache;
+import com.ttsapp.service.segment.SegmentLimits;
+import com.ttsapp.service.segment.TextSegmenter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 public abstract class AbstractCloudTTSService implements CloudTTSService {
 
-    private static final int MAX_CHARS_PER_CHUNK = 4000; // conservative limit
+    private static final int DEFAULT_MAX_CONCURRENT_CHUNKS = 4;
+
+    private volatile ExecutorService chunkExecutor;
+    private ChunkAudioCache chunkAudioCache;
+    private SegmentLimits chunkLimits = SegmentLimits.DEFAULT;
+    private volatile ChunkGuard chunkGuard = Supplier::get;
+
+    @Autowired(required = false)
+    public void setChunkAudioCache(ChunkAudioCache chunkAudioCache) {
+        this.chunkAudioCache = chunkAudioCache;
+    }
+
+    @Autowired(required = false)
+    public void setChunkingProperties(ChunkingProperties chunkingProperties) {
+        this.chunkLimits = chunkingProperties.forProvider(getProviderName()).toLimits();
+    }
+
+    /**
+     * Routes every provider call, one per chunk, through {@code chunkGuard}.
+     */
+    public void setChunkGuard(ChunkGuard chunkGuard) {
+        this.chunkGuard = chunkGuard;
+    }
+
+    @Override
+    public SegmentLimits getChunkLimits() {
+        return chunkLimits;
+    }
 
     @Override
     public byte[] synthesizeSpeech(TTSRequest request) {
+        return synthesizeAudio(request).toByteArray();
+    }
+
+    @Override
+    public SynthesisResult synthesize(TTSRequest request) {
+        LongAdder synthesized = new LongAdder();
+        AudioBuffer audio = synthesizeAudio(request, synthesized);
+        return new SynthesisResult(audio, synthesized.sum());
+    }
+
+    /**
+     * Synthesizes the request and keeps each chunk's audio in its own buffer instead of concatenating them.
+     */
+    public AudioBuffer synthesizeAudio(TTSRequest request) {
+        return synthesizeAudio(request, new LongAdder());
+    }
+
+    private AudioBuffer synthesizeAudio(TTSRequest request, LongAdder synthesized) {
         String text = request.getText();
-        if (text == null || text.length() <= MAX_CHARS_PER_CHUNK) {
-            return synthesizeChunk(request);
+        if (text == null || chunkLimits.fits(text)) {
+            byte[] audio = callProvider(request);
+            synthesized.add(text == null ? 0 : text.length());
+            return AudioBuffer.of(audio);
         }
 
-        List<String> chunks = splitText(text, MAX_CHARS_PER_CHUNK);
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        List<Future<byte[]>> futures = submitChunks(request, segment(request), synthesized);
+        List<byte[]> audioChunks = new ArrayList<>(futures.size());
 
+        // Collect in submission order so the audio is reassembled in chunk order
+        for (Future<byte[]> future : futures) {
+            audioChunks.add(awaitChunk(future, futures));
+        }
+
+        return AudioBuffer.ofChunks(audioChunks);
+    }
+
+    @Override
+    public boolean streamSpeech(TTSRequest request, OutputStream out, LongAdder synthesized) throws IOException {
+        String text = request.getText();
+        if (text == null || chunkLimits.fits(text)) {
+            byte[] audio = callProvider(request);
+            synthesized.add(text == null ? 0 : text.length());
+            out.write(audio);
+            return false;
+        }
+
+        List<Future<byte[]>> futures = submitChunks(request, segment(request), synthesized);
+        try {
+            // Only the chunks not yet written are held in memory
+            for (Future<byte[]> future : futures) {
+                out.write(awaitChunk(future, futures));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away, nobody is listening to the remaining chunks
+            cancelAll(futures);
+            throw e;
+        }
+        return false;
+    }
+
+    protected abstract byte[] synthesizeChunk(TTSRequest request);
+
+    private byte[] callProvider(TTSRequest chunkRequest) {
+        return chunkGuard.call(() -> synthesizeChunk(chunkRequest));
+    }
+
+    /**
+     * Upper bound on chunks of a single provider being synthesized at the same time.
+     * Override to match the provider's concurrency quota.
+     */
+    protected int getMaxConcurrentChunks() {
+        return DEFAULT_MAX_CONCURRENT_CHUNKS;
+    }
+
+    private List<String> segment(TTSRequest request) {
+        return TextSegmenter.segment(request.getText(), request.getLanguageCode(), chunkLimits);
+    }
+
+    /**
+     * Starts synthesis of every chunk not in the chunk cache, adding the characters of each one the provider
+     * synthesized to {@code synthesized}.
+     */
+    private List<Future<byte[]>> submitChunks(TTSRequest request, List<String> chunks, LongAdder synthesized) {
+        ExecutorService executor = getChunkExecutor();
+        List<Future<byte[]>> futures = new ArrayList<>(chunks.size());
+        TTSRequest.TTSRequestBuilder chunkBuilder = request.toBuilder().provider(getProviderName());
         for (String chunk : chunks) {
-            TTSRequest chunkRequest = TTSRequest.builder()
-                    .text(chunk)
-                    .provider(request.getProvider())
-                    .voiceId(request.getVoiceId())
-                    .languageCode(request.getLanguageCode())
-                    .speakingRate(request.getSpeakingRate())
-                    .pitch(request.getPitch())
-                    .audioQuality(request.getAudioQuality())
-                    .build();
-            
-            byte[] audioData = synthesizeChunk(chunkRequest);
-            try {
-                outputStream.write(audioData);
-            } catch (IOException e) {
-                throw new RuntimeException("Error concatenating audio chunks", e);
+            TTSRequest chunkRequest = chunkBuilder.text(chunk).build();
+            byte[] cached = chunkAudioCache == null ? null : chunkAudioCache.get(chunkRequest);
+            if (cached != null) {
+                // Unchanged chunk, stitch the known audio in without a provider call
+                futures.add(CompletableFuture.completedFuture(cached));
+            } else {
+                futures.add(executor.submit(() -> synthesizeAndCacheChunk(chunkRequest, synthesized)));
             }
         }
+        return futures;
+    }
 
-        return outputStream.toByteArray();
+    private byte[] synthesizeAndCacheChunk(TTSRequest chunkRequest, LongAdder synthesized) {
+        byte[] audio = callProvider(chunkRequest);
+        synthesized.add(chunkRequest.getText().length());
+        if (chunkAudioCache != null) {
+            chunkAudioCache.put(chunkRequest, audio);
+        }
+        return audio;
     }
 
-    protected abstract byte[] synthesizeChunk(TTSRequest request);
+    private byte[] awaitChunk(Future<byte[]> future, List<Future<byte[]>> allChunks) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            cancelAll(allChunks);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while synthesizing audio chunks", e);
+        } catch (ExecutionException e) {
+            // One failed chunk makes the whole document useless, stop paying for the rest
+            cancelAll(allChunks);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Error synthesizing audio chunk", cause);
+        }
+    }
+
+    private static void cancelAll(List<Future<byte[]>> futures) {
+        futures.forEach(f -> f.cancel(true));
+    }
 
-    private List<String> splitText(String text, int maxChars) {
-        List<String> chunks = new ArrayList<>();
-        int length = text.length();
-        int start = 0;
-
-        while (start < length) {
-            int end = Math.min(start + maxChars, length);
-            
-            // Try to find a good breaking point (period, newline, space)
-            if (end < length) {
-                int lastPeriod = text.lastIndexOf('.', end);
-                int lastNewline = text.lastIndexOf('\n', end);
-                int lastSpace = text.lastIndexOf(' ', end);
-
-                int breakPoint = Math.max(lastPeriod, Math.max(lastNewline, lastSpace));
-                
-                if (breakPoint > start) {
-                    end = breakPoint + 1;
+    private ExecutorService getChunkExecutor() {
+        ExecutorService executor = chunkExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = chunkExecutor;
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(getMaxConcurrentChunks(),
+                            daemonThreadFactory(getProviderName() + "-tts-chunk-"));
+                    chunkExecutor = executor;
                 }
             }
-            
-            chunks.add(text.substring(start, end).trim());
-            start = end;
         }
+        return executor;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdownChunkExecutor() {
+        ExecutorService executor = chunkExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
 
-        return chunks;
+    /**
+     * Wraps each provider call, for limits that have to apply per chunk rather than per document.
+     */
+    @FunctionalInterface
+    public interface ChunkGuard {
+        byte[] call(Supplier<byte[]> providerCall);
     }
 }
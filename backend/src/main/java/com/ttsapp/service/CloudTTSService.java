@@ -1,9 +1,48 @@
 package com.ttsapp.service;
 
+import com.ttsapp.dto.SynthesisResult;
 import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.audio.AudioBuffer;
+import com.ttsapp.service.segment.SegmentLimits;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
 
 public interface CloudTTSService {
     byte[] synthesizeSpeech(TTSRequest request);
 
     String getProviderName();
+
+    /**
+     * The most text this provider accepts in one call; longer texts are segmented into chunks within these limits.
+     */
+    default SegmentLimits getChunkLimits() {
+        return SegmentLimits.DEFAULT;
+    }
+
+    /**
+     * Synthesizes speech and reports whether the provider was actually called.
+     * Decorators that can answer without the provider override this so callers only bill real syntheses.
+     */
+    default SynthesisResult synthesize(TTSRequest request) {
+        return new SynthesisResult(AudioBuffer.of(synthesizeSpeech(request)), request.getText().length());
+    }
+
+    /**
+     * Writes the audio to {@code out} progressively, flushing each chunk once it and all earlier chunks are ready.
+     *
+     * @param request the synthesis request
+     * @param out the stream to write audio to
+     * @param synthesized receives the characters sent to the provider as soon as they are synthesized,
+     *                    so a stream that breaks off is still billed for the audio produced so far
+     * @return {@code true} if the audio was served from cache without calling the provider
+     * @throws IOException if writing to {@code out} fails
+     */
+    default boolean streamSpeech(TTSRequest request, OutputStream out, LongAdder synthesized) throws IOException {
+        SynthesisResult result = synthesize(request);
+        synthesized.add(result.getSynthesizedCharacters());
+        result.getAudio().writeTo(out);
+        return result.isCached();
+    }
 }
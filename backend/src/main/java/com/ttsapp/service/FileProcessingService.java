@@ -1,48 +1,175 @@
 package com.ttsapp.service;
 
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import com.ttsapp.dto.ExtractedPart;
+import com.ttsapp.service.cache.Digests;
+import com.ttsapp.service.cache.ExtractionCache;
+import com.ttsapp.service.extraction.DocumentFormat;
+import com.ttsapp.service.extraction.DocumentTooLargeException;
+import com.ttsapp.service.extraction.DocxTextSource;
+import com.ttsapp.service.extraction.ExtractionExecutor;
+import com.ttsapp.service.extraction.PdfTextExtractor;
+import com.ttsapp.service.extraction.PlainTextSource;
+import com.ttsapp.service.extraction.SpooledFile;
+import com.ttsapp.service.extraction.TextSource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Optional;
+import java.util.OptionalInt;
 
 @Service
 public class FileProcessingService {
 
-    public String extractText(MultipartFile file) throws IOException {
-        String filename = file.getOriginalFilename();
-        if (filename == null) {
-            throw new IllegalArgumentException("Filename is missing");
+    private final PdfTextExtractor pdfTextExtractor;
+    private final ExtractionCache extractionCache;
+    private final ExtractionExecutor extractionExecutor;
+    private final Path spoolDir;
+    private final int partChars;
+    private final long maxFileBytes;
+    private final int maxPages;
+
+    public FileProcessingService(PdfTextExtractor pdfTextExtractor, ExtractionCache extractionCache,
+                                 ExtractionExecutor extractionExecutor,
+                                 @Value("${tts.files.spool-dir:${java.io.tmpdir}/tts-uploads}") String spoolDir,
+                                 @Value("${tts.files.part-chars:16384}") int partChars,
+                                 @Value("${tts.files.extraction.max-file-bytes:268435456}") long maxFileBytes,
+                                 @Value("${tts.files.extraction.max-pages:5000}") int maxPages) throws IOException {
+        this.pdfTextExtractor = pdfTextExtractor;
+        this.extractionCache = extractionCache;
+        this.extractionExecutor = extractionExecutor;
+        this.spoolDir = Files.createDirectories(Path.of(spoolDir));
+        this.partChars = partChars;
+        this.maxFileBytes = maxFileBytes;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Extracts the text of an upload by user {@code uid}, who can later look it up by content hash.
+     */
+    public String extractText(MultipartFile file, String uid) throws IOException {
+        DocumentFormat format = DocumentFormat.of(file.getOriginalFilename());
+        if (format == DocumentFormat.TXT) {
+            admitSize(file);
+            // Decoded straight from the upload, a text file needs no random access
+            return extractionExecutor.execute(format, () -> {
+                try (TextSource source = new PlainTextSource(file.getInputStream(), partChars)) {
+                    return collect(source);
+                }
+            });
+        }
+        // Text files are not cached, decoding one again costs about as much as reading it from the cache
+        SpooledFile spooled = spool(file, format);
+        try {
+            String cached = extractionCache.get(format, spooled.sha256());
+            if (cached != null) {
+                extractionCache.grant(format, spooled.sha256(), uid);
+                return cached;
+            }
+            admitPages(spooled.path(), format, 1, Integer.MAX_VALUE);
+            String text = extractionExecutor.execute(format, () -> extract(spooled.path(), format));
+            extractionCache.put(format, spooled.sha256(), uid, text);
+            return text;
+        } finally {
+            Files.deleteIfExists(spooled.path());
+        }
+    }
+
+    /**
+     * Looks up text already extracted from an upload by user {@code uid} with the given content hash,
+     * letting a client that hashed the file itself skip uploading it again.
+     */
+    public Optional<String> findExtractedText(DocumentFormat format, String sha256, String uid) {
+        return Optional.ofNullable(extractionCache.getForUser(format, ExtractionCache.normalizeHash(sha256), uid));
+    }
+
+    /**
+     * Copies the upload to a temporary file that the caller deletes once extraction is done.
+     * Extraction then reads from disk and can run after the request's own upload storage is gone.
+     * The content is hashed on the way through, so a cache lookup costs no second pass over the file.
+     */
+    public SpooledFile spool(MultipartFile file, DocumentFormat format) throws IOException {
+        admitSize(file);
+        Path target = Files.createTempFile(spoolDir, "upload-", format.getExtension());
+        MessageDigest digest = Digests.newSha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(target);
+            throw e;
         }
+        return new SpooledFile(target, Digests.toHex(digest.digest()));
+    }
+
+    /**
+     * Opens a spooled file as a source of its text: one part per page for a PDF, limited to pages
+     * {@code firstPage} to {@code lastPage}, and parts of about {@code tts.files.part-chars} for other formats.
+     */
+    public TextSource open(Path file, DocumentFormat format, int firstPage, int lastPage) throws IOException {
+        return switch (format) {
+            case PDF -> pdfTextExtractor.pages(file, firstPage, lastPage);
+            case DOCX -> DocxTextSource.open(file, partChars);
+            case TXT -> new PlainTextSource(Files.newInputStream(file), partChars);
+        };
+    }
+
+    /**
+     * Extracts a spooled file on the extraction pool, a few parts ahead of the returned source.
+     * Refused up front when the pages to extract are over the limit or the pool is saturated.
+     */
+    public TextSource stream(Path file, DocumentFormat format, int firstPage, int lastPage) throws IOException {
+        admitPages(file, format, firstPage, lastPage);
+        return extractionExecutor.stream(format, () -> open(file, format, firstPage, lastPage));
+    }
 
-        String lowercaseFilename = filename.toLowerCase();
-        if (lowercaseFilename.endsWith(".pdf")) {
-            return extractTextFromPdf(file);
-        } else if (lowercaseFilename.endsWith(".docx")) {
-            return extractTextFromDocx(file);
-        } else if (lowercaseFilename.endsWith(".txt")) {
-            return new String(file.getBytes(), StandardCharsets.UTF_8);
-        } else {
-            throw new IllegalArgumentException("Unsupported file format: " + filename);
+    private void admitSize(MultipartFile file) {
+        if (file.getSize() > maxFileBytes) {
+            throw new DocumentTooLargeException("File of " + file.getSize() + " bytes is over the limit of "
+                    + maxFileBytes + " bytes");
         }
     }
 
-    private String extractTextFromPdf(MultipartFile file) throws IOException {
-        try (PDDocument document = Loader.loadPDF(file.getBytes())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+    /**
+     * Refuses a document with more pages to extract than allowed, reading only its page count.
+     * Documents that do not record a page count are let through, their size was already checked.
+     * A DOCX page count is whatever the file claims; its extraction is bounded by how far its XML may inflate.
+     */
+    private void admitPages(Path file, DocumentFormat format, int firstPage, int lastPage) throws IOException {
+        OptionalInt pageCount = switch (format) {
+            case PDF -> OptionalInt.of(pdfTextExtractor.countPages(file));
+            case DOCX -> DocxTextSource.pageCount(file);
+            case TXT -> OptionalInt.empty();
+        };
+        if (pageCount.isPresent()) {
+            long pages = Math.min(pageCount.getAsInt(), lastPage) - firstPage + 1L;
+            if (pages > maxPages) {
+                throw new DocumentTooLargeException(pages + " pages to extract, over the limit of " + maxPages
+                        + " pages");
+            }
+        }
+    }
+
+    private String extract(Path file, DocumentFormat format) throws IOException {
+        if (format == DocumentFormat.PDF) {
+            return pdfTextExtractor.extractText(file);
+        }
+        try (TextSource source = open(file, format, 1, Integer.MAX_VALUE)) {
+            return collect(source);
         }
     }
 
-    private String extractTextFromDocx(MultipartFile file) throws IOException {
-        try (XWPFDocument document = new XWPFDocument(file.getInputStream())) {
-            XWPFWordExtractor extractor = new XWPFWordExtractor(document);
-            return extractor.getText();
+    private static String collect(TextSource source) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (ExtractedPart part = source.next(); part != null; part = source.next()) {
+            text.append(part.getText());
         }
+        return text.toString();
     }
 }
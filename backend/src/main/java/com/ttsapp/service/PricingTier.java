@@ -0,0 +1,41 @@
+package com.ttsapp.service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Provider price tiers, see PRICING.md.
+ */
+public enum PricingTier {
+    STANDARD(4.00),
+    PREMIUM(16.00); // neural and WaveNet voices
+
+    private final double pricePerMillionCharacters;
+
+    PricingTier(double pricePerMillionCharacters) {
+        this.pricePerMillionCharacters = pricePerMillionCharacters;
+    }
+
+    public double getRatePerCharacter() {
+        return pricePerMillionCharacters / 1_000_000;
+    }
+
+    /**
+     * How many standard characters one character of this tier is worth.
+     */
+    public long getWeight() {
+        return Math.round(pricePerMillionCharacters / STANDARD.pricePerMillionCharacters);
+    }
+
+    /**
+     * Picks the tier a voice is synthesized with: standard when the voice offers it and high quality was not asked for.
+     */
+    public static PricingTier forVoice(List<String> styles, String audioQuality) {
+        boolean offersStandard = styles.stream().anyMatch(s -> s.equalsIgnoreCase("standard"));
+        boolean wantsHigh = audioQuality != null && audioQuality.toLowerCase(Locale.ROOT).equals("high");
+        if (offersStandard && (!wantsHigh || styles.size() == 1)) {
+            return STANDARD;
+        }
+        return PREMIUM;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ttsapp.service;
+
+public class ProviderNotFoundException extends RuntimeException {
+
+    public ProviderNotFoundException(String provider) {
+        super("Provider not found: " + provider);
+    }
+}
@@ -0,0 +1,112 @@
+package com.ttsapp.service;
+
+import com.ttsapp.config.ChunkingProperties;
+import com.ttsapp.service.cache.AudioCache;
+import com.ttsapp.service.cache.CachingCloudTTSService;
+import com.ttsapp.service.resilience.ProviderResilience;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The TTS providers by name, each already wrapped in its resilience and caching decorators.
+ * Lookups read an immutable map without locking; registering a provider at runtime publishes a new map.
+ */
+@Component
+@Slf4j
+public class ProviderRegistry {
+
+    private final AudioCache audioCache;
+    private final ProviderResilience resilience;
+    private final ChunkingProperties chunkingProperties;
+    private volatile Map<String, CloudTTSService> providers;
+
+    public ProviderRegistry(List<CloudTTSService> ttsServices, AudioCache audioCache, ProviderResilience resilience,
+                            ChunkingProperties chunkingProperties) {
+        this.audioCache = audioCache;
+        this.resilience = resilience;
+        this.chunkingProperties = chunkingProperties;
+        Map<String, CloudTTSService> initial = new HashMap<>();
+        for (CloudTTSService service : ttsServices) {
+            initial.put(normalize(service.getProviderName()), decorate(service));
+        }
+        this.providers = Map.copyOf(initial);
+    }
+
+    /**
+     * Looks up the provider registered under {@code name}, ignoring case.
+     */
+    public Optional<CloudTTSService> find(String name) {
+        return Optional.ofNullable(lookup(name));
+    }
+
+    /**
+     * Gets the provider registered under {@code name}, ignoring case.
+     *
+     * @throws ProviderNotFoundException when no such provider is registered
+     */
+    public CloudTTSService get(String name) {
+        CloudTTSService service = lookup(name);
+        if (service == null) {
+            throw new ProviderNotFoundException(name);
+        }
+        return service;
+    }
+
+    public Set<String> getProviderNames() {
+        return providers.keySet();
+    }
+
+    /**
+     * Adds or replaces a provider without a restart; requests already dispatched keep the instance they found.
+     * A replaced provider's bulkhead and circuit breaker are released, the new one starts with fresh ones.
+     * It gets its configured chunking limits like the providers registered on start.
+     */
+    public synchronized void register(CloudTTSService service) {
+        Map<String, CloudTTSService> updated = new HashMap<>(providers);
+        updated.put(normalize(service.getProviderName()), decorate(service));
+        providers = Map.copyOf(updated);
+        log.info("Registered TTS provider {}", service.getProviderName());
+    }
+
+    public synchronized void unregister(String name) {
+        String provider = normalize(name);
+        Map<String, CloudTTSService> updated = new HashMap<>(providers);
+        if (updated.remove(provider) != null) {
+            providers = Map.copyOf(updated);
+            resilience.release(provider);
+            log.info("Unregistered TTS provider {}", name);
+        }
+    }
+
+    private CloudTTSService lookup(String name) {
+        if (name == null) {
+            return null;
+        }
+        Map<String, CloudTTSService> current = providers;
+        CloudTTSService service = current.get(name);
+        if (service == null) {
+            // Clients normally send the lower-case name, only pay for normalizing when they do not
+            service = current.get(normalize(name));
+        }
+        return service;
+    }
+
+    private CloudTTSService decorate(CloudTTSService service) {
+        // Providers created outside the context are not autowired, so they would keep the default limits
+        if (service instanceof AbstractCloudTTSService chunked) {
+            chunked.setChunkingProperties(chunkingProperties);
+        }
+        return new CachingCloudTTSService(resilience.decorate(service), audioCache);
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,322 @@
+package com.ttsapp.service;
+
+import com.ttsapp.dto.SynthesisResult;
+import com.ttsapp.dto.TTSJobRequest;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.model.TTSJob;
+import com.ttsapp.model.User;
+import com.ttsapp.repository.TTSJobRepository;
+import com.ttsapp.service.segment.SegmentLimits;
+import com.ttsapp.service.segment.TextSegmenter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Runs long-document synthesis in the background.
+ * Every chunk's audio is persisted as its own part file, so an interrupted job resumes with the chunks still missing.
+ * An instance claims the jobs it runs with a lease it keeps renewing; jobs whose lease lapsed, because their
+ * instance stopped, are taken over by another one. Part files and audio live in {@code tts.jobs.storage-dir},
+ * which replicas must share for a taken-over job to keep its finished parts and for its audio to be served.
+ */
+@Service
+@Slf4j
+public class TTSJobService {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final List<TTSJob.Status> UNFINISHED = List.of(TTSJob.Status.PENDING, TTSJob.Status.RUNNING);
+
+    private final TTSJobRepository jobRepository;
+    private final UsageService usageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ProviderRegistry providerRegistry;
+    private final Path storageDir;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService leaseKeeper;
+    private final String instanceId;
+    private final Duration lease;
+    private final Set<UUID> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public TTSJobService(ProviderRegistry providerRegistry, TTSJobRepository jobRepository, UsageService usageService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${tts.jobs.storage-dir:${java.io.tmpdir}/tts-jobs}") String storageDir,
+                         @Value("${tts.jobs.worker-threads:4}") int workerThreads,
+                         @Value("${tts.jobs.instance-id:}") String instanceId,
+                         @Value("${tts.jobs.lease-seconds:60}") long leaseSeconds) throws IOException {
+        this.jobRepository = jobRepository;
+        this.usageService = usageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.providerRegistry = providerRegistry;
+        this.storageDir = Files.createDirectories(Path.of(storageDir));
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("tts-job-");
+        threadFactory.setDaemon(true);
+        this.workers = Executors.newFixedThreadPool(workerThreads, threadFactory);
+        this.instanceId = instanceId == null || instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+
+        CustomizableThreadFactory leaseThreadFactory = new CustomizableThreadFactory("tts-job-lease-");
+        leaseThreadFactory.setDaemon(true);
+        this.leaseKeeper = Executors.newSingleThreadScheduledExecutor(leaseThreadFactory);
+        long period = Math.max(leaseSeconds / 3, 1);
+        leaseKeeper.scheduleWithFixedDelay(this::keepLeases, period, period, TimeUnit.SECONDS);
+    }
+
+    public TTSJob createJob(User user, TTSJobRequest request) {
+        // Fail fast on an unknown provider, the job itself resolves it again when it runs
+        SegmentLimits limits = providerRegistry.get(request.getProvider()).getChunkLimits();
+
+        TTSJob job = TTSJob.builder()
+                .user(user)
+                .provider(request.getProvider())
+                .voiceId(request.getVoiceId())
+                .languageCode(request.getLanguageCode())
+                .speakingRate(request.getSpeakingRate())
+                .pitch(request.getPitch())
+                .audioQuality(request.getAudioQuality())
+                .text(request.getText())
+                .status(TTSJob.Status.PENDING)
+                .owner(instanceId)
+                .leaseExpiresAt(LocalDateTime.now().plus(lease))
+                .maxChunkChars(limits.maxChars())
+                .maxChunkBytes(limits.maxBytes())
+                .totalChunks(TextSegmenter.segment(request.getText(), request.getLanguageCode(), limits).size())
+                .completedChunks(0)
+                .build();
+        job = jobRepository.save(job);
+        start(job);
+        return job;
+    }
+
+    public Optional<TTSJob> getJob(UUID id, String firebaseUid) {
+        return jobRepository.findByIdAndUserFirebaseUid(id, firebaseUid);
+    }
+
+    public Path getAudioFile(TTSJob job) {
+        return storageDir.resolve(job.getId() + ".mp3");
+    }
+
+    /**
+     * Claims and starts the unfinished jobs no other live instance holds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (UUID id : jobRepository.findClaimableIds(UNFINISHED, instanceId, now)) {
+            if (activeJobs.contains(id) || jobRepository.claim(id, UNFINISHED, instanceId, now, now.plus(lease)) == 0) {
+                continue;
+            }
+            log.info("Resuming unfinished TTS job {}", id);
+            jobRepository.findWithUserById(id).ifPresent(this::start);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs stay RUNNING and are picked up again once their lease expires
+        leaseKeeper.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void keepLeases() {
+        try {
+            jobRepository.renewLeases(instanceId, UNFINISHED, LocalDateTime.now().plus(lease));
+            resumeUnfinishedJobs();
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew TTS job leases: {}", e.getMessage());
+        }
+    }
+
+    private void start(TTSJob job) {
+        if (!activeJobs.add(job.getId())) {
+            return;
+        }
+        try {
+            if (Files.exists(getAudioFile(job))) {
+                // Crashed after assembling the audio but before recording completion
+                complete(job);
+                activeJobs.remove(job.getId());
+                return;
+            }
+
+            Path partsDir = Files.createDirectories(storageDir.resolve(job.getId().toString()));
+            List<String> chunks = chunks(job);
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                if (!Files.exists(partFile(partsDir, i))) {
+                    missing.add(i);
+                }
+            }
+            jobRepository.updateProgress(job.getId(), TTSJob.Status.RUNNING, chunks.size() - missing.size(),
+                    LocalDateTime.now());
+
+            CloudTTSService service = providerRegistry.get(job.getProvider());
+            AtomicBoolean failed = new AtomicBoolean();
+            CompletableFuture<?>[] tasks = missing.stream()
+                    .map(i -> CompletableFuture.runAsync(() -> {
+                        if (!failed.get()) {
+                            long synthesized = synthesizePart(service, job, chunks.get(i), partFile(partsDir, i));
+                            jobRepository.incrementCompletedChunks(job.getId(), synthesized, LocalDateTime.now());
+                        }
+                    }, workers).whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            failed.set(true);
+                        }
+                    }))
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture.allOf(tasks).whenComplete((ignored, error) -> {
+                try {
+                    if (error != null) {
+                        fail(job, error);
+                    } else {
+                        assemble(partsDir, chunks.size(), getAudioFile(job));
+                        complete(job);
+                        deleteParts(partsDir);
+                    }
+                } catch (Exception e) {
+                    fail(job, e);
+                } finally {
+                    activeJobs.remove(job.getId());
+                }
+            });
+        } catch (Exception e) {
+            fail(job, e);
+            activeJobs.remove(job.getId());
+        }
+    }
+
+    /**
+     * Synthesizes one chunk into its part file.
+     *
+     * @return the characters sent to the provider, 0 when the audio came from a cache
+     */
+    private long synthesizePart(CloudTTSService service, TTSJob job, String chunk, Path part) {
+        TTSRequest chunkRequest = TTSRequest.builder()
+                .text(chunk)
+                .provider(job.getProvider())
+                .voiceId(job.getVoiceId())
+                .languageCode(job.getLanguageCode())
+                .speakingRate(job.getSpeakingRate())
+                .pitch(job.getPitch())
+                .audioQuality(job.getAudioQuality())
+                .build();
+        SynthesisResult result = service.synthesize(chunkRequest);
+        try {
+            // Written aside and moved into place so a part file on disk is always complete
+            Path temp = Files.createTempFile(part.getParent(), part.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                result.getAudio().writeTo(channel);
+            }
+            Files.move(temp, part, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.getSynthesizedCharacters();
+    }
+
+    private static void assemble(Path partsDir, int totalChunks, Path audioFile) throws IOException {
+        Path temp = Files.createTempFile(audioFile.getParent(), audioFile.getFileName().toString(), ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < totalChunks; i++) {
+                try (FileChannel in = FileChannel.open(partFile(partsDir, i), StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+        Files.move(temp, audioFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void complete(TTSJob job) {
+        finishAndBill(job, TTSJob.Status.COMPLETED, job.getTotalChunks(), null);
+    }
+
+    /**
+     * Records the job's final status and logs usage for the characters the provider synthesized over every run
+     * of the job, cached chunks excluded, in one transaction: a job is never finished without being billed,
+     * and a job that was not finished is resumed and billed when it does finish.
+     */
+    private void finishAndBill(TTSJob job, TTSJob.Status status, Integer completedChunks, String error) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            jobRepository.finish(job.getId(), status, completedChunks, error, LocalDateTime.now());
+            long characters = jobRepository.findBilledCharacters(job.getId());
+            log.info("TTS job {} finished, logging usage of {} characters", job.getId(), characters);
+            if (characters > 0) {
+                usageService.logUsageInTransaction(job.getUser(), job.getProvider(), (int) characters);
+            }
+        });
+    }
+
+    private void fail(TTSJob job, Throwable error) {
+        if (workers.isShutdown()) {
+            // Interrupted by shutdown rather than failed, leave it to be resumed
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        String message = String.valueOf(cause.getMessage());
+        log.error("TTS job {} failed: {}", job.getId(), message);
+        // The chunks synthesized before the failure were paid for
+        finishAndBill(job, TTSJob.Status.FAILED, null,
+                message.substring(0, Math.min(message.length(), MAX_ERROR_LENGTH)));
+    }
+
+    private static List<String> chunks(TTSJob job) {
+        if (job.getMaxChunkBytes() == null) {
+            // Created before segmentation, split the way its part files were written
+            int maxChars = job.getMaxChunkChars() != null ? job.getMaxChunkChars() : TextChunker.DEFAULT_MAX_CHARS;
+            return TextChunker.split(job.getText(), maxChars);
+        }
+        return TextSegmenter.segment(job.getText(), job.getLanguageCode(),
+                new SegmentLimits(job.getMaxChunkChars(), job.getMaxChunkBytes()));
+    }
+
+    private static Path partFile(Path partsDir, int index) {
+        return partsDir.resolve(index + PART_SUFFIX);
+    }
+
+    private static void deleteParts(Path partsDir) {
+        try (Stream<Path> files = Files.list(partsDir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(partsDir);
+        } catch (IOException e) {
+            log.warn("Failed to clean up job parts in {}: {}", partsDir, e.getMessage());
+        }
+    }
+}
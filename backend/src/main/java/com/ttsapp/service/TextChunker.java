@@ -0,0 +1,118 @@
+package com.ttsapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The chunking of jobs created before {@link com.ttsapp.service.segment.TextSegmenter}, kept so they can resume.
+ * Their finished part files hold the audio of these chunks, so the split must stay exactly as it was.
+ */
+final class TextChunker {
+
+    static final int DEFAULT_MAX_CHARS = 4000; // conservative limit
+
+    private TextChunker() {
+    }
+
+    /**
+     * Splits {@code text} into chunks of at most {@code maxChars}, preferring to break after a paragraph,
+     * then after a sentence, then at a space.
+     */
+    static List<String> split(String text, int maxChars) {
+        List<Range> ranges = ranges(text, maxChars);
+        List<String> chunks = new ArrayList<>(ranges.size());
+        for (Range range : ranges) {
+            chunks.add(range.of(text));
+        }
+        return chunks;
+    }
+
+    /**
+     * Same chunks as {@link #split}, as offsets into {@code text} so no chunk is copied until it is needed.
+     * Each window is searched backwards from its limit and never below its start, so every character is
+     * examined a bounded number of times and chunking a whole book stays linear in its length.
+     */
+    static List<Range> ranges(CharSequence text, int maxChars) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive: " + maxChars);
+        }
+        int length = text.length();
+        List<Range> ranges = new ArrayList<>(length / maxChars + 1);
+
+        int start = skipWhitespace(text, 0, length);
+        while (start < length) {
+            int limit = start + maxChars;
+            int end = limit >= length ? length : findBreak(text, start, limit);
+            ranges.add(new Range(start, trimEnd(text, start, end)));
+            start = skipWhitespace(text, end, length);
+        }
+        return ranges;
+    }
+
+    /**
+     * Chooses the exclusive end of the chunk starting at {@code start}, with {@code limit < text.length()}.
+     * The last paragraph or sentence end wins unless it would leave the chunk less than half full,
+     * in which case the last space does; the text is only cut mid-word when the window has no break at all.
+     */
+    private static int findBreak(CharSequence text, int start, int limit) {
+        int minPreferred = start + (limit - start) / 2;
+        int space = -1;
+        int boundary = -1;
+        for (int end = limit; end > start; end--) {
+            char last = text.charAt(end - 1);
+            if (last == '\n' || isSentenceEnd(last) && text.charAt(end) <= ' ') {
+                if (end > minPreferred) {
+                    return end;
+                }
+                if (boundary < 0) {
+                    boundary = end;
+                }
+            } else if (last <= ' ' && space < 0) {
+                space = end;
+            }
+            if (end <= minPreferred && space > 0) {
+                break;
+            }
+        }
+        int end = Math.max(space, boundary);
+        if (end > start) {
+            return end;
+        }
+        // No break in the window, cut hard without separating a surrogate pair
+        return Character.isHighSurrogate(text.charAt(limit - 1)) && limit - 1 > start ? limit - 1 : limit;
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+
+    private static int skipWhitespace(CharSequence text, int from, int length) {
+        int i = from;
+        while (i < length && text.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(CharSequence text, int start, int end) {
+        int i = end;
+        while (i > start && text.charAt(i - 1) <= ' ') {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * A chunk of a text as the half-open interval {@code [start, end)}.
+     */
+    record Range(int start, int end) {
+
+        public int length() {
+            return end - start;
+        }
+
+        public String of(String text) {
+            return text.substring(start, end);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ttsapp.service;
+
+import com.ttsapp.repository.UsageDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rebuilds tts_usage_daily from the raw tts_usage rows.
+ * Enable once with {@code tts.usage.rollup.backfill-on-startup=true} after upgrading an existing database.
+ */
+@Component
+@ConditionalOnProperty(name = "tts.usage.rollup.backfill-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class UsageRollupBackfill {
+
+    private final UsageDailyRollupRepository rollupRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        // Blocks the usage writer's upserts until the rebuild commits, so no batch is counted twice or lost
+        rollupRepository.lockForRebuild();
+        rollupRepository.deleteAllInBatch();
+        int rows = rollupRepository.rebuildFromUsage();
+        log.info("Rebuilt {} daily usage rollup rows", rows);
+    }
+}
@@ -1,41 +1,109 @@
 package com.ttsapp.service;
 
+import com.ttsapp.dto.UsageHistoryPage;
+import com.ttsapp.dto.UsageRecord;
 import com.ttsapp.model.TTSUsage;
+import com.ttsapp.model.UsageDailyRollup;
 import com.ttsapp.model.User;
 import com.ttsapp.repository.TTSUsageRepository;
+import com.ttsapp.repository.UsageDailyRollupRepository;
+import com.ttsapp.repository.UsageDailyRollupRepository.ProviderUsageTotal;
+import com.ttsapp.repository.UsageHistoryQuery;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class UsageService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final TTSUsageRepository usageRepository;
+    private final UsageDailyRollupRepository rollupRepository;
+    private final UsageWriter usageWriter;
+
+    public void logUsage(User user, String provider, Integer characterCount) {
+        usageWriter.enqueue(usage(user, provider, characterCount));
+    }
+
+    /**
+     * Logs usage within the caller's transaction, for billing that must not commit without the caller's changes.
+     */
+    public void logUsageInTransaction(User user, String provider, Integer characterCount) {
+        usageWriter.writeInCurrentTransaction(usage(user, provider, characterCount));
+    }
 
-    @Transactional
-    public TTSUsage logUsage(User user, String provider, Integer characterCount) {
-        double rate = 0.000004; // $4.00 per 1M characters
+    private static TTSUsage usage(User user, String provider, Integer characterCount) {
+        double rate = PricingTier.STANDARD.getRatePerCharacter(); // $4.00 per 1M characters
         double estimatedCost = characterCount * rate;
 
-        TTSUsage usage = TTSUsage.builder()
+        return TTSUsage.builder()
                 .user(user)
                 .provider(provider)
                 .characterCount(characterCount)
                 .estimatedCost(estimatedCost)
+                .createdAt(LocalDateTime.now())
                 .build();
-
-        return usageRepository.save(usage);
     }
 
-    public List<TTSUsage> getUserUsage(User user) {
-        return usageRepository.findByUser(user);
+    /**
+     * Loads the page of usage records that follows {@code cursor}, newest first.
+     * The cursor is the opaque {@code nextCursor} of the previous page, or null for the first page.
+     */
+    public UsageHistoryPage getUsageHistory(User user, LocalDateTime from, LocalDateTime to, String provider,
+                                            String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        UsageHistoryQuery.UsageHistoryQueryBuilder query = UsageHistoryQuery.builder()
+                .userId(user.getId())
+                .from(from)
+                .to(to)
+                .provider(provider)
+                .limit(pageSize);
+        if (cursor != null && !cursor.isBlank()) {
+            decodeCursor(cursor, query);
+        }
+
+        List<UsageRecord> items = usageRepository.findHistoryPage(query.build());
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            UsageRecord last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new UsageHistoryPage(items, nextCursor);
     }
-    
+
+
     public Double getTotalCost(User user) {
-        return getUserUsage(user).stream()
-                .mapToDouble(TTSUsage::getEstimatedCost)
-                .sum();
+        return rollupRepository.sumEstimatedCost(user.getId());
+    }
+
+    public List<ProviderUsageTotal> getProviderTotals(User user) {
+        return rollupRepository.findProviderTotals(user.getId());
+    }
+
+    public List<UsageDailyRollup> getDailyUsage(User user, LocalDate since) {
+        return rollupRepository.findByUserIdAndUsageDateGreaterThanEqualOrderByUsageDateDesc(user.getId(), since);
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String position = createdAt + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void decodeCursor(String cursor, UsageHistoryQuery.UsageHistoryQueryBuilder query) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf(CURSOR_SEPARATOR);
+            query.afterCreatedAt(LocalDateTime.parse(position.substring(0, separator)))
+                    .afterId(Long.parseLong(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
 }
@@ -0,0 +1,250 @@
+package com.ttsapp.service;
+
+import com.ttsapp.model.TTSUsage;
+import com.ttsapp.repository.TTSUsageRepository;
+import com.ttsapp.repository.UsageDailyRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer that persists usage records in JDBC batches, keeping the insert off the request path.
+ * A batch is flushed when it is full or when the flush interval has passed since its first record,
+ * and the daily rollups are updated in the same transaction.
+ * A batch that fails to commit is retried with backoff, then written record by record;
+ * only a record that still cannot be written is given up on, and counted.
+ */
+@Component
+@Slf4j
+public class UsageWriter {
+
+    private static final long POLL_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TTSUsageRepository usageRepository;
+    private final UsageDailyRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate callerTransaction;
+    private final BlockingQueue<TTSUsage> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxWriteAttempts;
+    private final long retryBackoffMs;
+    private final Counter droppedRecords;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public UsageWriter(TTSUsageRepository usageRepository, UsageDailyRollupRepository rollupRepository,
+                       PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${tts.usage.queue-capacity:10000}") int queueCapacity,
+                       @Value("${tts.usage.batch-size:50}") int batchSize,
+                       @Value("${tts.usage.flush-interval-ms:2000}") long flushIntervalMs,
+                       @Value("${tts.usage.max-write-attempts:3}") int maxWriteAttempts,
+                       @Value("${tts.usage.retry-backoff-ms:500}") long retryBackoffMs) {
+        this.usageRepository = usageRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.callerTransaction = new TransactionTemplate(transactionManager);
+        callerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_MANDATORY);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxWriteAttempts = Math.max(maxWriteAttempts, 1);
+        this.retryBackoffMs = retryBackoffMs;
+
+        alignSequenceWithExistingRows(jdbcTemplate);
+        Gauge.builder("tts.usage.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.droppedRecords = Counter.builder("tts.usage.records.dropped").register(meterRegistry);
+
+        this.writerThread = new Thread(this::run, "usage-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void enqueue(TTSUsage usage) {
+        if (!running || !queue.offer(usage)) {
+            // Never drop billing data: when the writer is saturated or stopped, pay the insert on the caller
+            flush(List.of(usage));
+        } else if (!running && queue.remove(usage)) {
+            // Shutdown began after the check above and may already have drained the queue
+            flush(List.of(usage));
+        }
+    }
+
+    /**
+     * Writes {@code usage} and its rollup in the caller's transaction instead of a later batch,
+     * so the record commits or rolls back together with the caller's own changes.
+     */
+    public void writeInCurrentTransaction(TTSUsage usage) {
+        callerTransaction.executeWithoutResult(status -> {
+            usageRepository.save(usage);
+            rollUp(List.of(usage));
+        });
+    }
+
+    /**
+     * Stops the writer and writes whatever is still queued.
+     * The writer thread notices within a poll timeout and is left to finish the batch it is writing;
+     * it is only interrupted when it has not stopped after the join timeout.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        if (writerThread.isAlive()) {
+            log.warn("Usage writer did not stop within 30 seconds, interrupting it");
+            writerThread.interrupt();
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        List<TTSUsage> remaining = new ArrayList<>(batchSize);
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            flush(remaining);
+            remaining.clear();
+        }
+    }
+
+    private void run() {
+        List<TTSUsage> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                TTSUsage first = queue.poll(POLL_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0 || !running) {
+                        break;
+                    }
+                    // Waits in bounded steps, so a shutdown is noticed without interrupting the thread
+                    TTSUsage next = queue.poll(Math.min(wait, POLL_TIMEOUT_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    /**
+     * Moves tts_usage_seq past ids issued by the former IDENTITY column, so existing databases do not collide.
+     */
+    private static void alignSequenceWithExistingRows(JdbcTemplate jdbcTemplate) {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        jdbcTemplate.execute("SELECT setval('tts_usage_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM tts_usage)) "
+                + "WHERE (SELECT last_value FROM tts_usage_seq) <= (SELECT COALESCE(MAX(id), 0) FROM tts_usage)");
+    }
+
+    private void flush(List<TTSUsage> batch) {
+        for (int attempt = 1; attempt <= maxWriteAttempts; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} usage records (attempt {} of {}): {}", batch.size(), attempt,
+                        maxWriteAttempts, e.getMessage());
+                if (attempt < maxWriteAttempts) {
+                    backOff(attempt);
+                }
+            }
+        }
+        if (batch.size() == 1) {
+            giveUp(batch.get(0));
+            return;
+        }
+        // A single bad record fails the whole batch, keep the others from going down with it
+        for (TTSUsage usage : batch) {
+            try {
+                write(List.of(usage));
+            } catch (RuntimeException e) {
+                giveUp(usage);
+            }
+        }
+    }
+
+    private void write(List<TTSUsage> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                usageRepository.saveAll(batch);
+                rollUp(batch);
+            });
+        } catch (RuntimeException e) {
+            // Ids assigned in the rolled back transaction were never stored, let the retry persist afresh
+            batch.forEach(usage -> usage.setId(null));
+            throw e;
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs << (attempt - 1));
+        } catch (InterruptedException e) {
+            // Shutting down: the remaining attempts go ahead without waiting
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void giveUp(TTSUsage usage) {
+        droppedRecords.increment();
+        log.error("Dropped usage record of user {}: {} characters with {}", usage.getUser().getId(),
+                usage.getCharacterCount(), usage.getProvider());
+    }
+
+    private void rollUp(List<TTSUsage> batch) {
+        // One upsert per (user, provider, day) in the batch rather than one per record
+        Map<RollupKey, RollupTotal> totals = new LinkedHashMap<>();
+        for (TTSUsage usage : batch) {
+            RollupKey key = new RollupKey(usage.getUser().getId(), usage.getProvider(),
+                    usage.getCreatedAt().toLocalDate());
+            RollupTotal total = totals.computeIfAbsent(key, k -> new RollupTotal());
+            total.requests++;
+            total.characters += usage.getCharacterCount();
+            total.cost += usage.getEstimatedCost();
+        }
+        totals.forEach((key, total) -> rollupRepository.addUsage(key.userId(), key.provider(), key.date(),
+                total.requests, total.characters, total.cost));
+    }
+
+    private record RollupKey(Long userId, String provider, LocalDate date) {
+    }
+
+    private static final class RollupTotal {
+        private long requests;
+        private long characters;
+        private double cost;
+    }
+}
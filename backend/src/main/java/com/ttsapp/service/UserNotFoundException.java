@@ -0,0 +1,8 @@
+package com.ttsapp.service;
+
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException() {
+        super("User not found");
+    }
+}
@@ -1,29 +1,50 @@
 package com.ttsapp.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.ttsapp.model.User;
 import com.ttsapp.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final Cache<String, Long> userIds;
+
+    public UserService(UserRepository userRepository, MeterRegistry meterRegistry,
+                       @Value("${tts.users.id-cache.max-size:100000}") long idCacheMaxSize,
+                       @Value("${tts.users.id-cache.ttl-minutes:30}") long idCacheTtlMinutes) {
+        this.userRepository = userRepository;
+        // The TTL bounds how long another instance can keep resolving the uid of a user deleted elsewhere
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(idCacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(idCacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userIds, "users.id");
+    }
 
     @Transactional
     public User syncUser(String firebaseUid, String email, String displayName, String photoUrl) {
         Optional<User> existingUser = userRepository.findByFirebaseUid(firebaseUid);
         
+        User saved;
         if (existingUser.isPresent()) {
             User user = existingUser.get();
             user.setDisplayName(displayName);
             user.setPhotoUrl(photoUrl);
             user.setLastLogin(LocalDateTime.now());
-            return userRepository.save(user);
+            saved = userRepository.save(user);
         } else {
             User newUser = User.builder()
                     .firebaseUid(firebaseUid)
@@ -31,16 +52,59 @@ public class UserService {
                     .displayName(displayName)
                     .photoUrl(photoUrl)
                     .build();
-            return userRepository.save(newUser);
+            saved = userRepository.save(newUser);
         }
+        Long id = saved.getId();
+        // A rolled back insert must not leave the id of a user that does not exist in the cache
+        afterCommit(() -> userIds.put(firebaseUid, id));
+        return saved;
     }
 
     public Optional<User> getUserByFirebaseUid(String firebaseUid) {
         return userRepository.findByFirebaseUid(firebaseUid);
     }
 
+    /**
+     * Resolves the user id for a Firebase uid, querying the database only on the first lookup.
+     */
+    public Optional<Long> getUserIdByFirebaseUid(String firebaseUid) {
+        Long id = userIds.getIfPresent(firebaseUid);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Long> found = userRepository.findIdByFirebaseUid(firebaseUid);
+        found.ifPresent(userId -> userIds.put(firebaseUid, userId));
+        return found;
+    }
+
+    /**
+     * Looks up an unloaded reference to the user, for callers that only need to associate records with them.
+     * Reading anything but the id triggers the query this method exists to avoid.
+     */
+    public Optional<User> getUserReference(String firebaseUid) {
+        return getUserIdByFirebaseUid(firebaseUid).map(userRepository::getReferenceById);
+    }
+
     @Transactional
     public void deleteUser(String firebaseUid) {
         userRepository.findByFirebaseUid(firebaseUid).ifPresent(userRepository::delete);
+        // Until the commit a concurrent lookup still finds the row and would cache the id again
+        afterCommit(() -> userIds.invalidate(firebaseUid));
+    }
+
+    /**
+     * Runs a cache update once the current transaction commits, or right away outside of one.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
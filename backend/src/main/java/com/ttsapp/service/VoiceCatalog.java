@@ -0,0 +1,124 @@
+package com.ttsapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ttsapp.dto.VoiceDTO;
+import com.ttsapp.service.cache.Digests;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the voice catalog, indexed by provider, voice id, language and gender,
+ * with every catalog response serialized once when the snapshot is built.
+ * A refresh builds a new snapshot instead of changing this one, so readers never see a partial update.
+ */
+public final class VoiceCatalog {
+
+    private final List<VoiceDTO> voices;
+    private final Map<String, List<VoiceDTO>> byProvider;
+    private final Map<String, VoiceDTO> byProviderAndId;
+    private final Map<String, List<VoiceDTO>> byLanguageAndGender;
+    private final List<String> languages;
+    private final Json allVoicesJson;
+    private final Map<String, Json> providerJson;
+    private final Json noVoicesJson;
+    private final Json languagesJson;
+
+    private VoiceCatalog(List<VoiceDTO> voices, ObjectMapper objectMapper) {
+        this.voices = List.copyOf(voices);
+
+        Map<String, List<VoiceDTO>> providers = new LinkedHashMap<>();
+        Map<String, VoiceDTO> ids = new LinkedHashMap<>();
+        Map<String, List<VoiceDTO>> languageAndGender = new LinkedHashMap<>();
+        Set<String> languageCodes = new LinkedHashSet<>();
+        for (VoiceDTO voice : this.voices) {
+            String provider = lower(voice.getProvider());
+            providers.computeIfAbsent(provider, p -> new ArrayList<>()).add(voice);
+            ids.putIfAbsent(provider + '\0' + voice.getId(), voice);
+            languageAndGender.computeIfAbsent(voice.getLanguageCode() + '\0' + voice.getGender(),
+                    k -> new ArrayList<>()).add(voice);
+            if (voice.getLanguageCode() != null) {
+                languageCodes.add(voice.getLanguageCode());
+            }
+        }
+        this.byProvider = copyLists(providers);
+        this.byProviderAndId = Map.copyOf(ids);
+        this.byLanguageAndGender = copyLists(languageAndGender);
+        this.languages = List.copyOf(languageCodes);
+
+        this.allVoicesJson = Json.of(objectMapper, this.voices);
+        Map<String, Json> perProvider = new LinkedHashMap<>();
+        byProvider.forEach((provider, list) -> perProvider.put(provider, Json.of(objectMapper, list)));
+        this.providerJson = Map.copyOf(perProvider);
+        this.noVoicesJson = Json.of(objectMapper, List.of());
+        this.languagesJson = Json.of(objectMapper, this.languages);
+    }
+
+    public static VoiceCatalog of(List<VoiceDTO> voices, ObjectMapper objectMapper) {
+        return new VoiceCatalog(voices, objectMapper);
+    }
+
+    public List<VoiceDTO> getVoices() {
+        return voices;
+    }
+
+    public List<VoiceDTO> getVoices(String provider) {
+        return byProvider.getOrDefault(lower(provider), List.of());
+    }
+
+    public VoiceDTO findVoice(String provider, String voiceId) {
+        return byProviderAndId.get(lower(provider) + '\0' + voiceId);
+    }
+
+    public List<VoiceDTO> getVoices(String languageCode, String gender) {
+        return byLanguageAndGender.getOrDefault(languageCode + '\0' + gender, List.of());
+    }
+
+    public List<String> getLanguages() {
+        return languages;
+    }
+
+    public Json getVoicesJson() {
+        return allVoicesJson;
+    }
+
+    public Json getVoicesJson(String provider) {
+        return providerJson.getOrDefault(lower(provider), noVoicesJson);
+    }
+
+    public Json getLanguagesJson() {
+        return languagesJson;
+    }
+
+    private static Map<String, List<VoiceDTO>> copyLists(Map<String, List<VoiceDTO>> lists) {
+        Map<String, List<VoiceDTO>> copy = new LinkedHashMap<>();
+        lists.forEach((key, list) -> copy.put(key, List.copyOf(list)));
+        return Map.copyOf(copy);
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A serialized response body with a strong ETag derived from its bytes.
+     * The array is shared between requests and must not be modified.
+     */
+    public record Json(byte[] body, String etag) {
+
+        static Json of(ObjectMapper objectMapper, Object value) {
+            try {
+                byte[] body = objectMapper.writeValueAsBytes(value);
+                return new Json(body, '"' + Digests.toHex(Digests.newSha256().digest(body)) + '"');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Voice catalog cannot be serialized", e);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.ttsapp.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ttsapp.dto.VoiceDTO;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -10,10 +12,17 @@ import java.util.stream.Collectors;
 @Service
 public class VoiceService {
 
-    private final List<VoiceDTO> voices;
+    private final ObjectMapper objectMapper;
+    private volatile VoiceCatalog catalog;
 
     public VoiceService() {
-        this.voices = new ArrayList<>();
+        this(new ObjectMapper());
+    }
+
+    @Autowired
+    public VoiceService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        List<VoiceDTO> voices = new ArrayList<>();
         // Mock data for Amazon Polly
         voices.add(new VoiceDTO("Joanna", "Joanna", "en-US", "FEMALE", "amazon", List.of("neural", "standard"), null));
         voices.add(new VoiceDTO("Matthew", "Matthew", "en-US", "MALE", "amazon", List.of("neural", "standard"), null));
@@ -25,22 +34,52 @@ public class VoiceService {
         // Mock data for Azure
         voices.add(new VoiceDTO("en-US-JennyNeural", "Jenny", "en-US", "FEMALE", "azure", List.of("neural"), null));
         voices.add(new VoiceDTO("en-US-GuyNeural", "Guy", "en-US", "MALE", "azure", List.of("neural"), null));
+        this.catalog = VoiceCatalog.of(voices, objectMapper);
+    }
+
+    /**
+     * Replaces the catalog with the given voices. Requests already holding the previous snapshot finish with it.
+     * The voices must not be modified afterwards, their serialized form is computed once here.
+     */
+    public void refresh(List<VoiceDTO> voices) {
+        this.catalog = VoiceCatalog.of(voices, objectMapper);
+    }
+
+    public VoiceCatalog getCatalog() {
+        return catalog;
     }
 
     public List<VoiceDTO> getAllVoices() {
-        return voices;
+        return catalog.getVoices();
     }
 
     public List<VoiceDTO> getVoicesByProvider(String provider) {
-        return voices.stream()
-                .filter(v -> v.getProvider().equalsIgnoreCase(provider))
+        return catalog.getVoices(provider);
+    }
+
+    /**
+     * Finds voices of other providers that can stand in for the given one: same language and gender.
+     */
+    public List<VoiceDTO> findEquivalentVoices(String provider, String voiceId) {
+        VoiceCatalog snapshot = catalog;
+        VoiceDTO voice = snapshot.findVoice(provider, voiceId);
+        if (voice == null) {
+            return List.of();
+        }
+        return snapshot.getVoices(voice.getLanguageCode(), voice.getGender()).stream()
+                .filter(v -> !v.getProvider().equalsIgnoreCase(provider))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Resolves the tier a request is priced at; voices not in the catalog are treated as standard.
+     */
+    public PricingTier getPricingTier(String provider, String voiceId, String audioQuality) {
+        VoiceDTO voice = catalog.findVoice(provider, voiceId);
+        return voice == null ? PricingTier.STANDARD : PricingTier.forVoice(voice.getStyles(), audioQuality);
+    }
+
     public List<String> getLanguages() {
-        return voices.stream()
-                .map(VoiceDTO::getLanguageCode)
-                .distinct()
-                .collect(Collectors.toList());
+        return catalog.getLanguages();
     }
 }
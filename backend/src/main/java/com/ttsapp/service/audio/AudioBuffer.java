@@ -0,0 +1,103 @@
+package com.ttsapp.service.audio;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Immutable audio assembled from per-chunk buffers without copying them into one array.
+ * The chunks are exposed as a scatter/gather sequence so they can be written straight to a channel.
+ */
+public final class AudioBuffer {
+
+    private static final AudioBuffer EMPTY = new AudioBuffer(new ByteBuffer[0], 0);
+
+    private final ByteBuffer[] chunks;
+    private final long size;
+
+    private AudioBuffer(ByteBuffer[] chunks, long size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    public static AudioBuffer of(byte[] audio) {
+        return ofChunks(List.of(audio));
+    }
+
+    public static AudioBuffer ofChunks(List<byte[]> audioChunks) {
+        if (audioChunks.isEmpty()) {
+            return EMPTY;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[audioChunks.size()];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            byte[] chunk = audioChunks.get(i);
+            buffers[i] = ByteBuffer.wrap(chunk);
+            total += chunk.length;
+        }
+        return new AudioBuffer(buffers, total);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Independent read-only views of the chunks, safe to consume concurrently with other readers.
+     */
+    public ByteBuffer[] buffers() {
+        ByteBuffer[] views = new ByteBuffer[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            views[i] = chunks[i].asReadOnlyBuffer();
+        }
+        return views;
+    }
+
+    /**
+     * Writes every chunk to {@code channel}, using a single gathering write when the channel supports it.
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer[] views = buffers();
+        if (channel instanceof GatheringByteChannel gathering) {
+            long remaining = size;
+            while (remaining > 0) {
+                remaining -= gathering.write(views);
+            }
+            return;
+        }
+        for (ByteBuffer view : views) {
+            while (view.hasRemaining()) {
+                channel.write(view);
+            }
+        }
+    }
+
+    /**
+     * Writes every chunk to {@code out} straight from the backing arrays.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        for (ByteBuffer chunk : chunks) {
+            out.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+        }
+    }
+
+    /**
+     * Copies the audio into one contiguous array; prefer the {@code writeTo} methods on hot paths.
+     */
+    public byte[] toByteArray() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Audio too large for a single array: " + size + " bytes");
+        }
+        byte[] result = new byte[(int) size];
+        int offset = 0;
+        for (ByteBuffer chunk : chunks) {
+            int length = chunk.remaining();
+            System.arraycopy(chunk.array(), chunk.arrayOffset() + chunk.position(), result, offset, length);
+            offset += length;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ttsapp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.audio.AudioBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content-addressed cache of fully synthesized audio.
+ * Entries live in a byte-bounded in-memory tier (Caffeine, W-TinyLFU eviction) backed by an optional disk tier.
+ * Disk writes happen on a background thread, the memory tier serves the entry in the meantime.
+ */
+@Component
+@Slf4j
+public class AudioCache {
+
+    private static final int DISK_WRITE_QUEUE_CAPACITY = 64;
+
+    private final Cache<String, AudioBuffer> memory;
+    private final DiskCache disk;
+    private final ThreadPoolExecutor diskWriter;
+    private final Counter droppedDiskWrites;
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    public AudioCache(MeterRegistry meterRegistry,
+                      @Value("${tts.cache.audio.max-memory-bytes:67108864}") long maxMemoryBytes,
+                      @Value("${tts.cache.audio.disk-dir:}") String diskDir,
+                      @Value("${tts.cache.audio.max-disk-bytes:1073741824}") long maxDiskBytes) {
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryBytes)
+                .weigher((String key, AudioBuffer audio) -> (int) Math.min(audio.size(), Integer.MAX_VALUE))
+                .recordStats()
+                .build();
+        this.disk = createDiskTier(diskDir, maxDiskBytes);
+        this.droppedDiskWrites = Counter.builder("tts.audio.cache.disk.writes.dropped").register(meterRegistry);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audio-cache-writer-");
+        threadFactory.setDaemon(true);
+        // Caching is best effort: when the disk falls behind, entries stay in memory only
+        this.diskWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(DISK_WRITE_QUEUE_CAPACITY), threadFactory,
+                (task, executor) -> droppedDiskWrites.increment());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "tts.audio");
+        this.memoryHits = requestCounter(meterRegistry, "hit", "memory");
+        this.diskHits = requestCounter(meterRegistry, "hit", "disk");
+        this.misses = requestCounter(meterRegistry, "miss", "none");
+    }
+
+    public AudioBuffer get(String key) {
+        AudioBuffer audio = memory.getIfPresent(key);
+        if (audio != null) {
+            memoryHits.increment();
+            return audio;
+        }
+        if (disk != null) {
+            byte[] stored = disk.get(key);
+            if (stored != null) {
+                diskHits.increment();
+                audio = AudioBuffer.of(stored);
+                memory.put(key, audio);
+                return audio;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String key, AudioBuffer audio) {
+        memory.put(key, audio);
+        if (disk != null) {
+            diskWriter.execute(() -> disk.put(key, audio.buffers()));
+        }
+    }
+
+    /**
+     * Stops taking disk writes and waits briefly for the queued ones.
+     */
+    @PreDestroy
+    public void close() {
+        diskWriter.shutdown();
+        try {
+            if (!diskWriter.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Audio disk cache writes still pending at shutdown were dropped");
+                diskWriter.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            diskWriter.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Builds the cache key from every request field that changes the produced audio.
+     */
+    public static String keyFor(TTSRequest request) {
+        StringBuilder key = new StringBuilder();
+        appendField(key, lower(request.getProvider()));
+        appendField(key, request.getVoiceId());
+        appendField(key, request.getLanguageCode());
+        appendField(key, request.getSpeakingRate() == null ? null : request.getSpeakingRate().toString());
+        appendField(key, request.getPitch() == null ? null : request.getPitch().toString());
+        appendField(key, lower(request.getAudioQuality()));
+        appendField(key, normalizeText(request.getText()));
+        return Digests.sha256Hex(key.toString());
+    }
+
+    private static String normalizeText(String text) {
+        return text == null ? null : Normalizer.normalize(text.strip(), Normalizer.Form.NFC);
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static void appendField(StringBuilder key, String value) {
+        // Length-prefixed so that no combination of field values can collide
+        if (value == null) {
+            key.append("-1:");
+        } else {
+            key.append(value.length()).append(':').append(value);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result, String tier) {
+        return Counter.builder("tts.audio.cache.requests")
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(registry);
+    }
+
+    private static DiskCache createDiskTier(String diskDir, long maxDiskBytes) {
+        if (diskDir == null || diskDir.isBlank()) {
+            return null;
+        }
+        try {
+            return new DiskCache(Path.of(diskDir), maxDiskBytes, ".audio");
+        } catch (IOException e) {
+            log.warn("Audio disk cache disabled, cannot use {}: {}", diskDir, e.getMessage());
+            return null;
+        }
+    }
+}
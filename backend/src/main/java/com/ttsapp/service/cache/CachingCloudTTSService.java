@@ -0,0 +1,64 @@
+package com.ttsapp.service.cache;
+
+import com.ttsapp.dto.SynthesisResult;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.CloudTTSService;
+import com.ttsapp.service.audio.AudioBuffer;
+import com.ttsapp.service.segment.SegmentLimits;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that answers repeated requests from {@link AudioCache} instead of calling the provider again.
+ */
+public class CachingCloudTTSService implements CloudTTSService {
+
+    private final CloudTTSService delegate;
+    private final AudioCache audioCache;
+
+    public CachingCloudTTSService(CloudTTSService delegate, AudioCache audioCache) {
+        this.delegate = delegate;
+        this.audioCache = audioCache;
+    }
+
+    @Override
+    public byte[] synthesizeSpeech(TTSRequest request) {
+        return synthesize(request).getAudio().toByteArray();
+    }
+
+    @Override
+    public SynthesisResult synthesize(TTSRequest request) {
+        String key = AudioCache.keyFor(request);
+        AudioBuffer cached = audioCache.get(key);
+        if (cached != null) {
+            return new SynthesisResult(cached, true);
+        }
+
+        SynthesisResult result = delegate.synthesize(request);
+        audioCache.put(key, result.getAudio());
+        return result;
+    }
+
+    @Override
+    public boolean streamSpeech(TTSRequest request, OutputStream out, LongAdder synthesized) throws IOException {
+        AudioBuffer cached = audioCache.get(AudioCache.keyFor(request));
+        if (cached != null) {
+            cached.writeTo(out);
+            return true;
+        }
+        // Not buffered into the cache: streaming keeps peak heap bounded, chunks are still cached individually
+        return delegate.streamSpeech(request, out, synthesized);
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public SegmentLimits getChunkLimits() {
+        return delegate.getChunkLimits();
+    }
+}
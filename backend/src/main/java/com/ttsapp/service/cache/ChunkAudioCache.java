@@ -0,0 +1,37 @@
+package com.ttsapp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ttsapp.dto.TTSRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-chunk audio cache keyed by (chunk text hash, voice parameters).
+ * Lets an edited document re-synthesize only the chunks that actually changed.
+ */
+@Component
+public class ChunkAudioCache {
+
+    private final Cache<String, byte[]> chunks;
+
+    public ChunkAudioCache(MeterRegistry meterRegistry,
+                           @Value("${tts.cache.chunk.max-memory-bytes:134217728}") long maxMemoryBytes) {
+        this.chunks = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryBytes)
+                .weigher((String key, byte[] audio) -> audio.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, chunks, "tts.chunk");
+    }
+
+    public byte[] get(TTSRequest chunkRequest) {
+        return chunks.getIfPresent(AudioCache.keyFor(chunkRequest));
+    }
+
+    public void put(TTSRequest chunkRequest, byte[] audio) {
+        chunks.put(AudioCache.keyFor(chunkRequest), audio);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ttsapp.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded LRU store of opaque byte blobs on local disk, one file per key.
+ * Keys must be safe file names (hex digests); eviction order survives restarts through file modification times.
+ * The directory belongs to one cache: temporary files found in it on start were left by a crash and are deleted.
+ */
+@Slf4j
+public class DiskCache {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final String suffix;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public DiskCache(Path directory, long maxBytes, String suffix) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+        this.suffix = suffix;
+        loadExistingEntries();
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    public byte[] get(String key) {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                return null;
+            }
+        }
+        Path file = fileFor(key);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return data;
+        } catch (NoSuchFileException e) {
+            remove(key);
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read disk cache entry {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    public void put(String key, byte[] data) {
+        put(key, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Stores the concatenation of {@code data} with a single gathering write.
+     */
+    public void put(String key, ByteBuffer... data) {
+        long size = 0;
+        for (ByteBuffer buffer : data) {
+            size += buffer.remaining();
+        }
+        if (size > maxBytes) {
+            return;
+        }
+        Path target = fileFor(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long remaining = size;
+                while (remaining > 0) {
+                    remaining -= channel.write(data);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write disk cache entry {}: {}", key, e.getMessage());
+            if (temp != null) {
+                // A full disk would otherwise fill up further with half-written entries nobody tracks
+                deleteQuietly(temp);
+            }
+            return;
+        }
+        synchronized (this) {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            evictIfNeeded();
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+            deleteQuietly(fileFor(key));
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            deleteQuietly(fileFor(eldest.getKey()));
+        }
+    }
+
+    private void loadExistingEntries() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.toList();
+        }
+        // Entries a crash interrupted mid-write, nothing tracks them so they would take up the disk for good
+        files.stream()
+                .filter(p -> p.getFileName().toString().endsWith(TEMP_SUFFIX))
+                .forEach(DiskCache::deleteQuietly);
+        files = files.stream()
+                .filter(p -> p.getFileName().toString().endsWith(suffix))
+                .sorted(Comparator.comparing(DiskCache::lastModified))
+                .toList();
+        synchronized (this) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long size = Files.size(file);
+                entries.put(name.substring(0, name.length() - suffix.length()), size);
+                totalBytes += size;
+            }
+            evictIfNeeded();
+        }
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(key + suffix);
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete disk cache file {}: {}", file, e.getMessage());
+        }
+    }
+}
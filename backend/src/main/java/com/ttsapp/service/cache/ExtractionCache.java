@@ -0,0 +1,156 @@
+package com.ttsapp.service.cache;
+
+import com.ttsapp.service.extraction.DocumentFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Text extracted from uploaded documents, addressed by the SHA-256 of the upload and kept gzip-compressed
+ * in a size-bounded LRU directory, so a document uploaded again is not parsed again.
+ * Anyone uploading the bytes may reuse their text, but a lookup by hash alone only answers a user who uploaded
+ * the document before: each upload leaves a small per-user marker next to the text, evicted like any entry.
+ */
+@Component
+@Slf4j
+public class ExtractionCache {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final DiskCache disk;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ExtractionCache(MeterRegistry meterRegistry,
+                           @Value("${tts.cache.extraction.disk-dir:}") String diskDir,
+                           @Value("${tts.cache.extraction.max-disk-bytes:268435456}") long maxDiskBytes) {
+        this.disk = createDiskCache(diskDir, maxDiskBytes);
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * Looks up the text extracted from an upload of {@code format} whose content hashes to {@code sha256},
+     * or {@code null} when it is not cached.
+     */
+    public String get(DocumentFormat format, String sha256) {
+        if (disk == null) {
+            return null;
+        }
+        byte[] stored = disk.get(keyFor(format, sha256));
+        if (stored == null) {
+            misses.increment();
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(stored))) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            hits.increment();
+            return text;
+        } catch (IOException e) {
+            log.warn("Dropping unreadable extraction cache entry {}: {}", sha256, e.getMessage());
+            disk.remove(keyFor(format, sha256));
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the text of a document by hash alone, answering only when user {@code uid} uploaded it before;
+     * anyone else would learn the text of a document they may never have had.
+     */
+    public String getForUser(DocumentFormat format, String sha256, String uid) {
+        if (disk == null) {
+            return null;
+        }
+        // Read rather than checked, so the marker stays as recently used as the text it grants
+        if (disk.get(userKeyFor(format, sha256, uid)) == null) {
+            misses.increment();
+            return null;
+        }
+        return get(format, sha256);
+    }
+
+    /**
+     * Stores the text extracted from an upload by user {@code uid}, who can then find it by hash alone.
+     */
+    public void put(DocumentFormat format, String sha256, String uid, String text) {
+        if (disk == null) {
+            return;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(compressed, 8192)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Compressing in memory cannot fail", e);
+        }
+        disk.put(keyFor(format, sha256), compressed.toByteArray());
+        grant(format, sha256, uid);
+    }
+
+    /**
+     * Records that user {@code uid} uploaded the document, letting them find its cached text by hash alone.
+     */
+    public void grant(DocumentFormat format, String sha256, String uid) {
+        if (disk == null) {
+            return;
+        }
+        String key = userKeyFor(format, sha256, uid);
+        if (!disk.contains(key)) {
+            // Holds the text's key, so markers count towards the size bound
+            disk.put(key, keyFor(format, sha256).getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Normalizes a client-supplied hex digest, rejecting anything that is not a SHA-256.
+     */
+    public static String normalizeHash(String sha256) {
+        String hash = sha256 == null ? "" : sha256.toLowerCase(Locale.ROOT);
+        if (!SHA256_HEX.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 hex digest: " + sha256);
+        }
+        return hash;
+    }
+
+    private static String keyFor(DocumentFormat format, String sha256) {
+        // The same bytes uploaded under another extension go through another parser
+        return format.name().toLowerCase(Locale.ROOT) + "-" + normalizeHash(sha256);
+    }
+
+    private static String userKeyFor(DocumentFormat format, String sha256, String uid) {
+        // Hashed, a uid is not necessarily a safe file name
+        return "user-" + Digests.sha256Hex(uid + ":" + keyFor(format, sha256));
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("tts.extraction.cache.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static DiskCache createDiskCache(String diskDir, long maxDiskBytes) {
+        if (diskDir == null || diskDir.isBlank()) {
+            return null;
+        }
+        try {
+            return new DiskCache(Path.of(diskDir), maxDiskBytes, ".txt.gz");
+        } catch (IOException e) {
+            log.warn("Extraction cache disabled, cannot use {}: {}", diskDir, e.getMessage());
+            return null;
+        }
+    }
+}
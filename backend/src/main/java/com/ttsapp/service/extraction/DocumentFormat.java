@@ -0,0 +1,40 @@
+package com.ttsapp.service.extraction;
+
+import java.util.Locale;
+
+/**
+ * Upload formats text can be extracted from, recognized by file extension.
+ */
+public enum DocumentFormat {
+    PDF(".pdf"),
+    DOCX(".docx"),
+    TXT(".txt");
+
+    private final String extension;
+
+    DocumentFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Recognizes the format of an uploaded file from its name.
+     *
+     * @throws IllegalArgumentException if the name is missing or has an unsupported extension
+     */
+    public static DocumentFormat of(String filename) {
+        if (filename == null) {
+            throw new IllegalArgumentException("Filename is missing");
+        }
+        String lowercaseFilename = filename.toLowerCase(Locale.ROOT);
+        for (DocumentFormat format : values()) {
+            if (lowercaseFilename.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported file format: " + filename);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ttsapp.service.extraction;
+
+/**
+ * Thrown when an upload is refused before extraction because of its size or page count.
+ */
+public class DocumentTooLargeException extends RuntimeException {
+
+    public DocumentTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,220 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The body text of a DOCX, read with a single StAX pass over {@code word/document.xml} instead of building
+ * the document model. Paragraphs are collected into parts of roughly {@code partChars} characters.
+ * The XML is inflated under the same kind of zip bomb limits POI's {@code ZipSecureFile} applies:
+ * a cap on its size and on its compression ratio.
+ */
+public class DocxTextSource implements TextSource {
+
+    private static final String WORD_NAMESPACE = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final long MAX_XML_BYTES = 1L << 30;
+    private static final int MAX_COMPRESSION_RATIO = 100;
+    // Small entries may compress well without being a threat
+    private static final long RATIO_GRACE_BYTES = 1L << 20;
+
+    private final ZipFile zip;
+    private final InputStream documentXml;
+    private final XMLStreamReader reader;
+    private final int partChars;
+    private final StringBuilder part;
+    private boolean inText;
+    private int index;
+
+    private DocxTextSource(ZipFile zip, InputStream documentXml, XMLStreamReader reader, int partChars) {
+        this.zip = zip;
+        this.documentXml = documentXml;
+        this.reader = reader;
+        this.partChars = partChars;
+        this.part = new StringBuilder(partChars + 1024);
+    }
+
+    public static DocxTextSource open(Path docx, int partChars) throws IOException {
+        ZipFile zip = new ZipFile(docx.toFile());
+        try {
+            ZipEntry entry = zip.getEntry("word/document.xml");
+            if (entry == null) {
+                throw new IllegalArgumentException("Not a Word document: word/document.xml is missing");
+            }
+            InputStream documentXml = inflate(zip, entry);
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(documentXml);
+            return new DocxTextSource(zip, documentXml, reader, partChars);
+        } catch (XMLStreamException e) {
+            zip.close();
+            throw new IOException("Malformed Word document: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the page count Word recorded in {@code docProps/app.xml} when the document was last saved.
+     * Empty when the document has none, as files written by other tools often do.
+     * The count is advisory: whoever wrote the file chose it, so it only refuses documents that claim to be long.
+     * What extraction can cost is bounded by the inflation limits of {@link #inflate}, not by this count.
+     */
+    public static OptionalInt pageCount(Path docx) throws IOException {
+        try (ZipFile zip = new ZipFile(docx.toFile())) {
+            ZipEntry entry = zip.getEntry("docProps/app.xml");
+            if (entry == null) {
+                return OptionalInt.empty();
+            }
+            try (InputStream appXml = inflate(zip, entry)) {
+                XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(appXml);
+                try {
+                    while (reader.hasNext()) {
+                        if (reader.next() == XMLStreamConstants.START_ELEMENT
+                                && "Pages".equals(reader.getLocalName())) {
+                            return OptionalInt.of(Integer.parseInt(reader.getElementText().strip()));
+                        }
+                    }
+                    return OptionalInt.empty();
+                } finally {
+                    reader.close();
+                }
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    @Override
+    public ExtractedPart next() throws IOException {
+        if (part.length() >= partChars * 2) {
+            return takeLongParagraphPart();
+        }
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = true;
+                        case "tab" -> part.append('\t');
+                        case "br", "cr" -> part.append('\n');
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    if ("t".equals(reader.getLocalName())) {
+                        inText = false;
+                    } else if ("p".equals(reader.getLocalName())) {
+                        part.append('\n');
+                        // Parts end between paragraphs so no sentence is split across records
+                        if (part.length() >= partChars) {
+                            return takePart();
+                        }
+                    }
+                } else if (inText && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                    part.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    if (part.length() >= partChars * 2) {
+                        return takeLongParagraphPart();
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed Word document: " + e.getMessage(), e);
+        }
+        return part.isEmpty() ? null : takePart();
+    }
+
+    private ExtractedPart takePart() {
+        return takePart(part.length());
+    }
+
+    private ExtractedPart takePart(int end) {
+        String text = part.substring(0, end);
+        part.delete(0, end);
+        return new ExtractedPart(++index, null, text);
+    }
+
+    /**
+     * Ends a part inside a paragraph too long to wait for its end: after the last whitespace
+     * between {@code partChars} and twice that, or at twice that, keeping surrogate pairs together.
+     */
+    private ExtractedPart takeLongParagraphPart() {
+        int max = partChars * 2;
+        for (int i = max - 1; i >= partChars; i--) {
+            if (Character.isWhitespace(part.charAt(i))) {
+                return takePart(i + 1);
+            }
+        }
+        return takePart(Character.isHighSurrogate(part.charAt(max - 1)) ? max - 1 : max);
+    }
+
+    /**
+     * Opens an entry for reading, failing once it inflates past {@link #MAX_XML_BYTES}
+     * or past {@link #MAX_COMPRESSION_RATIO} times its compressed size.
+     */
+    static InputStream inflate(ZipFile zip, ZipEntry entry) throws IOException {
+        long compressedSize = entry.getCompressedSize();
+        long limit = compressedSize < 0 ? MAX_XML_BYTES
+                : Math.min(MAX_XML_BYTES, Math.max(RATIO_GRACE_BYTES, compressedSize * MAX_COMPRESSION_RATIO));
+        return new FilterInputStream(zip.getInputStream(entry)) {
+            private long inflated;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    count(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    count(read);
+                }
+                return read;
+            }
+
+            private void count(int bytes) {
+                inflated += bytes;
+                if (inflated > limit) {
+                    throw new DocumentTooLargeException(entry.getName() + " inflates past " + limit
+                            + " bytes, from " + compressedSize + " compressed");
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // Nothing left to release beyond the streams closed below
+        }
+        try (ZipFile ignored = zip) {
+            documentXml.close();
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Uploaded XML is untrusted
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ttsapp.service.extraction;
+
+/**
+ * Thrown when every extraction thread is busy and the queue in front of them is full.
+ */
+public class ExtractionBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ExtractionBusyException(long retryAfterSeconds) {
+        super("Too many documents are being extracted, try again in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
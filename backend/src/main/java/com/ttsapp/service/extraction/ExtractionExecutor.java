@@ -0,0 +1,201 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs document extraction on a small dedicated pool with a bounded queue, so a burst of large uploads
+ * cannot take the CPU and heap the request threads need for synthesis. When the queue is full new work
+ * is refused with {@link ExtractionBusyException} instead of waiting.
+ */
+@Component
+@Slf4j
+public class ExtractionExecutor {
+
+    private static final int STREAMED_PARTS_AHEAD = 4;
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final long streamStallMillis;
+    private final Map<DocumentFormat, Timer> durations = new EnumMap<>(DocumentFormat.class);
+
+    public ExtractionExecutor(MeterRegistry meterRegistry,
+                              @Value("${tts.files.extraction.threads:2}") int threads,
+                              @Value("${tts.files.extraction.queue-capacity:16}") int queueCapacity,
+                              @Value("${tts.files.extraction.retry-after-seconds:5}") long retryAfterSeconds,
+                              @Value("${tts.files.extraction.stream-stall-ms:30000}") long streamStallMillis) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("extraction-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.streamStallMillis = streamStallMillis;
+
+        Gauge.builder("tts.extraction.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("tts.extraction.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        for (DocumentFormat format : DocumentFormat.values()) {
+            durations.put(format, Timer.builder("tts.extraction.duration")
+                    .tag("format", format.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs {@code task} on the extraction pool and waits for its result.
+     */
+    public <T> T execute(DocumentFormat format, Callable<T> task) throws IOException {
+        Future<T> future = submit(() -> durations.get(format).recordCallable(task));
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting text", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Opens a source on the extraction pool and reads it there, handing parts to the returned source
+     * a few at a time. Closing the returned source stops the extraction, and so does a reader that takes
+     * no part for {@code tts.files.extraction.stream-stall-ms}, so a slow client cannot hold an extraction thread.
+     */
+    public TextSource stream(DocumentFormat format, Callable<TextSource> opener) {
+        BlockingQueue<Item> parts = new ArrayBlockingQueue<>(STREAMED_PARTS_AHEAD);
+        Future<?> future = submit(() -> {
+            Timer.Sample sample = Timer.start();
+            try (TextSource source = opener.call()) {
+                for (ExtractedPart part = source.next(); part != null; part = source.next()) {
+                    if (!hand(parts, new Item(part, null))) {
+                        return null;
+                    }
+                }
+                hand(parts, Item.END);
+            } catch (InterruptedException e) {
+                // Reader went away
+                return null;
+            } catch (Exception e) {
+                hand(parts, new Item(null, e));
+            } finally {
+                sample.stop(durations.get(format));
+            }
+            return null;
+        });
+        return new QueuedTextSource(parts, future);
+    }
+
+    /**
+     * Queues an item for the reader, giving up when it has not made room for one within the stall timeout.
+     */
+    private boolean hand(BlockingQueue<Item> parts, Item item) throws InterruptedException {
+        if (parts.offer(item, streamStallMillis, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        log.warn("Stopped streamed extraction, the reader took no part for {} ms", streamStallMillis);
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ExtractionBusyException(retryAfterSeconds);
+        }
+    }
+
+    private static IOException unwrap(Throwable cause) {
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException("Error extracting text", cause);
+    }
+
+    private record Item(ExtractedPart part, Exception error) {
+        static final Item END = new Item(null, null);
+    }
+
+    private static final class QueuedTextSource implements TextSource {
+
+        private final BlockingQueue<Item> parts;
+        private final Future<?> future;
+        private boolean finished;
+
+        QueuedTextSource(BlockingQueue<Item> parts, Future<?> future) {
+            this.parts = parts;
+            this.future = future;
+        }
+
+        @Override
+        public ExtractedPart next() throws IOException {
+            if (finished) {
+                return null;
+            }
+            Item item = take();
+            if (item.error() != null) {
+                finished = true;
+                throw unwrap(item.error());
+            }
+            finished = item == Item.END;
+            return item.part();
+        }
+
+        private Item take() throws IOException {
+            try {
+                Item item = parts.poll(1, TimeUnit.SECONDS);
+                while (item == null) {
+                    if (future.isDone()) {
+                        // The task may have queued its last item just before finishing
+                        item = parts.poll();
+                        if (item == null) {
+                            throw new IOException("Extraction stopped before the end of the document");
+                        }
+                        return item;
+                    }
+                    item = parts.poll(1, TimeUnit.SECONDS);
+                }
+                return item;
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while extracting text", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            future.cancel(true);
+        }
+    }
+}
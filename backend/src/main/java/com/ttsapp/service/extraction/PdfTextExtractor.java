@@ -0,0 +1,142 @@
+package com.ttsapp.service.extraction;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Extracts the text of a PDF on disk one page at a time, so neither the file nor its whole text has to fit in memory.
+ * The file is read through a small buffer, and parsed streams beyond {@code tts.files.pdf.max-main-memory-bytes}
+ * are kept in scratch files.
+ * Whole documents are extracted by page ranges in parallel, each worker with its own document over a memory mapping
+ * of the file; the mappings share the operating system's page cache, so the file is read from disk once.
+ * The range workers are shared by every document being extracted and by default number
+ * {@code tts.files.extraction.threads}, so parallel PDFs stay within the processors set aside for extraction.
+ */
+@Component
+public class PdfTextExtractor {
+
+    private final long maxMainMemoryBytes;
+    private final int minPagesPerTask;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public PdfTextExtractor(@Value("${tts.files.pdf.max-main-memory-bytes:16777216}") long maxMainMemoryBytes,
+                            @Value("${tts.files.pdf.parallelism:0}") int parallelism,
+                            @Value("${tts.files.extraction.threads:2}") int extractionThreads,
+                            @Value("${tts.files.pdf.min-pages-per-task:8}") int minPagesPerTask) {
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+        this.minPagesPerTask = Math.max(minPagesPerTask, 1);
+        // An extraction thread waits while its ranges run, so these take over its share of the budget
+        this.pool = new ForkJoinPool(Math.max(parallelism > 0 ? parallelism : extractionThreads, 1));
+    }
+
+    public PdfTextExtractor(long maxMainMemoryBytes, int parallelism, int minPagesPerTask) {
+        this(maxMainMemoryBytes, parallelism, 1, minPagesPerTask);
+    }
+
+    public PdfTextExtractor(long maxMainMemoryBytes) {
+        this(maxMainMemoryBytes, 1, Integer.MAX_VALUE);
+    }
+
+    public PDDocument open(Path pdf) throws IOException {
+        return load(new RandomAccessReadBufferedFile(pdf));
+    }
+
+    /**
+     * Reads the page count from the page tree, without parsing any page content.
+     */
+    public int countPages(Path pdf) throws IOException {
+        try (PDDocument document = open(pdf)) {
+            return document.getNumberOfPages();
+        }
+    }
+
+    /**
+     * Opens pages {@code firstPage} to {@code lastPage} (1-based, inclusive) as a source of one part per page.
+     */
+    public TextSource pages(Path pdf, int firstPage, int lastPage) throws IOException {
+        return new PdfTextSource(open(pdf), firstPage, lastPage);
+    }
+
+    /**
+     * Extracts the whole text, splitting the pages into contiguous ranges that are extracted in parallel
+     * and joined back in page order.
+     */
+    public String extractText(Path pdf) throws IOException {
+        int pageCount;
+        try (PDDocument document = open(pdf)) {
+            pageCount = document.getNumberOfPages();
+            if (pageCount < minPagesPerTask * 2 || pool.getParallelism() == 1) {
+                return new PDFTextStripper().getText(document);
+            }
+        }
+
+        int tasks = Math.min(pool.getParallelism() * 2, pageCount / minPagesPerTask);
+        List<Callable<String>> ranges = new ArrayList<>(tasks);
+        for (int task = 0; task < tasks; task++) {
+            int first = pageCount * task / tasks + 1;
+            int last = pageCount * (task + 1) / tasks;
+            ranges.add(() -> extractRange(pdf, first, last));
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (Future<String> range : pool.invokeAll(ranges)) {
+            text.append(join(range));
+        }
+        return text.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private String extractRange(Path pdf, int firstPage, int lastPage) throws IOException {
+        try (PDDocument document = load(new RandomAccessReadMemoryMappedFile(pdf))) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(firstPage);
+            stripper.setEndPage(lastPage);
+            return stripper.getText(document);
+        }
+    }
+
+    private PDDocument load(RandomAccessRead source) throws IOException {
+        return Loader.loadPDF(source, MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache);
+    }
+
+    private static String join(Future<String> range) throws IOException {
+        try {
+            return range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting PDF text", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Error extracting PDF text", cause);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.IOException;
+
+/**
+ * The pages of an open PDF in a range, one part per page.
+ */
+class PdfTextSource implements TextSource {
+
+    private final PDDocument document;
+    private final PDFTextStripper stripper = new PDFTextStripper();
+    private final int lastPage;
+    private int nextPage;
+    private int index;
+
+    PdfTextSource(PDDocument document, int firstPage, int lastPage) {
+        this.document = document;
+        this.nextPage = Math.max(firstPage, 1);
+        this.lastPage = Math.min(lastPage, document.getNumberOfPages());
+    }
+
+    @Override
+    public ExtractedPart next() throws IOException {
+        if (nextPage > lastPage) {
+            return null;
+        }
+        int page = nextPage++;
+        stripper.setStartPage(page);
+        stripper.setEndPage(page);
+        return new ExtractedPart(++index, page, stripper.getText(document));
+    }
+
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+}
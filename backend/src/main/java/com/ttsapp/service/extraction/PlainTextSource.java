@@ -0,0 +1,135 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A plain text upload decoded straight from its stream, in parts of roughly {@code partChars} characters
+ * that end at a line break where possible.
+ * The charset comes from a byte order mark; without one the start of the stream is checked for valid UTF-8,
+ * falling back to Windows-1252, which accepts any byte sequence.
+ */
+public class PlainTextSource implements TextSource {
+
+    static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+    private static final int SNIFF_BYTES = 8192;
+
+    private final Reader reader;
+    private final int partChars;
+    private final char[] buffer;
+    private int buffered;
+    private boolean eof;
+    private int index;
+
+    public PlainTextSource(InputStream in, int partChars) throws IOException {
+        PushbackInputStream stream = new PushbackInputStream(in, SNIFF_BYTES);
+        this.reader = new InputStreamReader(stream, newDecoder(detectCharset(stream)));
+        this.partChars = partChars;
+        this.buffer = new char[partChars * 2];
+    }
+
+    @Override
+    public ExtractedPart next() throws IOException {
+        while (!eof && buffered < partChars) {
+            int read = reader.read(buffer, buffered, buffer.length - buffered);
+            if (read < 0) {
+                eof = true;
+            } else {
+                buffered += read;
+            }
+        }
+        if (buffered == 0) {
+            return null;
+        }
+
+        int end = buffered;
+        if (!eof) {
+            // Keep the partial last line for the next part, unless the buffer holds no line break at all
+            int lastBreak = lastLineBreak();
+            end = lastBreak > 0 ? lastBreak : buffered;
+            if (Character.isHighSurrogate(buffer[end - 1])) {
+                end--;
+            }
+        }
+        String text = new String(buffer, 0, end);
+        System.arraycopy(buffer, end, buffer, 0, buffered - end);
+        buffered -= end;
+        return new ExtractedPart(++index, null, text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int lastLineBreak() {
+        for (int i = buffered; i > partChars / 2; i--) {
+            if (buffer[i - 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the charset from a byte order mark, consuming it, or sniffs UTF-8 validity and leaves the stream as it was.
+     */
+    static Charset detectCharset(PushbackInputStream in) throws IOException {
+        byte[] head = in.readNBytes(SNIFF_BYTES);
+        int bom = 0;
+        Charset charset;
+        if (startsWith(head, 0xEF, 0xBB, 0xBF)) {
+            bom = 3;
+            charset = StandardCharsets.UTF_8;
+        } else if (startsWith(head, 0xFE, 0xFF)) {
+            bom = 2;
+            charset = StandardCharsets.UTF_16BE;
+        } else if (startsWith(head, 0xFF, 0xFE)) {
+            bom = 2;
+            charset = StandardCharsets.UTF_16LE;
+        } else {
+            charset = isUtf8(head, head.length == SNIFF_BYTES) ? StandardCharsets.UTF_8 : WINDOWS_1252;
+        }
+        in.unread(head, bom, head.length - bom);
+        return charset;
+    }
+
+    private static boolean isUtf8(byte[] head, boolean truncated) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer in = ByteBuffer.wrap(head);
+        CharBuffer out = CharBuffer.allocate(head.length);
+        // A sequence cut off by the end of the sniffed bytes is underflow, not an error
+        return !decoder.decode(in, out, !truncated).isError();
+    }
+
+    private static boolean startsWith(byte[] bytes, int... prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CharsetDecoder newDecoder(Charset charset) {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+}
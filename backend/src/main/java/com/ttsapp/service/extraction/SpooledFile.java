@@ -0,0 +1,9 @@
+package com.ttsapp.service.extraction;
+
+import java.nio.file.Path;
+
+/**
+ * An upload copied to a temporary file, with the SHA-256 of its content computed while it was copied.
+ */
+public record SpooledFile(Path path, String sha256) {
+}
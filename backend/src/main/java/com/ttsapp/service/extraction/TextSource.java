@@ -0,0 +1,21 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The text of a document, extracted a part at a time as it is pulled.
+ * Only the part being produced is held in memory, and consumers can start on the first part before the last
+ * has been extracted.
+ */
+public interface TextSource extends Closeable {
+
+    /**
+     * Extracts the next part of the text.
+     *
+     * @return the next part, or {@code null} once the document is exhausted
+     */
+    ExtractedPart next() throws IOException;
+}
@@ -0,0 +1,17 @@
+package com.ttsapp.service.ratelimit;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the rate-limit buckets, either in this JVM or in state shared by every backend replica.
+ */
+public interface BucketStore {
+
+    /**
+     * Gets the bucket stored under {@code key}, creating it from {@code configuration} on first use.
+     */
+    Bucket getBucket(String key, Supplier<BucketConfiguration> configuration);
+}
@@ -0,0 +1,74 @@
+package com.ttsapp.service.ratelimit;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.postgresql.Bucket4jPostgreSQL;
+import io.github.bucket4j.postgresql.PostgreSQLSelectForUpdateBasedProxyManager;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps bucket state in a Postgres table so that every replica draws from the same buckets.
+ * Each consumption is one short SELECT ... FOR UPDATE transaction on the bucket's row, run by bucket4j-postgresql.
+ * The table is created by {@value #SCHEMA_LOCATION}, not by this class.
+ */
+@Slf4j
+public class PostgresBucketStore implements BucketStore, AutoCloseable {
+
+    public static final String SCHEMA_LOCATION = "classpath:db/rate-limit-schema-postgresql.sql";
+
+    private static final String TABLE = "rate_limit_bucket";
+    private static final int EXPIRED_BATCH_SIZE = 1000;
+
+    private final PostgreSQLSelectForUpdateBasedProxyManager<String> proxyManager;
+    private final ScheduledExecutorService cleaner;
+
+    public PostgresBucketStore(DataSource dataSource, Duration idleTimeout) {
+        this.proxyManager = Bucket4jPostgreSQL.selectForUpdateBasedBuilder(dataSource)
+                .primaryKeyMapper(PrimaryKeyMapper.STRING)
+                .table(TABLE)
+                .expirationAfterWrite(ExpirationAfterWriteStrategy.fixedTimeToLive(idleTimeout))
+                .build();
+
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-bucket-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodSeconds = Math.max(60, idleTimeout.toSeconds());
+        cleaner.scheduleWithFixedDelay(this::deleteIdleBuckets, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Bucket getBucket(String key, Supplier<BucketConfiguration> configuration) {
+        return proxyManager.builder().build(key, configuration);
+    }
+
+    @Override
+    public void close() {
+        cleaner.shutdownNow();
+    }
+
+    private void deleteIdleBuckets() {
+        try {
+            // A bucket idle for longer than its refill period is full again, dropping it loses nothing
+            int deleted = 0;
+            int batch;
+            do {
+                batch = proxyManager.removeExpired(EXPIRED_BATCH_SIZE);
+                deleted += batch;
+            } while (batch == EXPIRED_BATCH_SIZE);
+            log.debug("Deleted {} idle rate-limit buckets", deleted);
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete idle rate-limit buckets: {}", e.getMessage());
+        }
+    }
+}
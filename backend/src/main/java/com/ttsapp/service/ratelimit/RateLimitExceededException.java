@@ -0,0 +1,8 @@
+package com.ttsapp.service.ratelimit;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
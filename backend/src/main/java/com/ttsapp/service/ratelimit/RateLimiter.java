@@ -0,0 +1,105 @@
+package com.ttsapp.service.ratelimit;
+
+import com.ttsapp.config.RateLimitProperties;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Applies the configured endpoint and provider limits to a user, drawing tokens from the {@link BucketStore}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    private final BucketStore bucketStore;
+    private final RateLimitProperties properties;
+
+    /**
+     * Finds the path prefix whose limit applies to {@code path}, or null when the path is not limited.
+     */
+    public String matchEndpoint(String path) {
+        String match = null;
+        for (String prefix : properties.getEndpoints().keySet()) {
+            if (path.startsWith(prefix) && (match == null || prefix.length() > match.length())) {
+                match = prefix;
+            }
+        }
+        return match;
+    }
+
+    public boolean tryConsumeEndpoint(String firebaseUid, String endpoint) {
+        RateLimitProperties.Limit limit = properties.getEndpoints().get(endpoint);
+        return limit == null || tryConsume("endpoint:" + endpoint + ":" + firebaseUid, limit, 1);
+    }
+
+    public boolean tryConsumeProvider(String firebaseUid, String provider) {
+        String name = provider.toLowerCase(Locale.ROOT);
+        RateLimitProperties.Limit limit = findProviderLimit(name);
+        return limit == null || tryConsume("provider:" + name + ":" + firebaseUid, limit, 1);
+    }
+
+    /**
+     * Gives back a provider token taken by {@link #tryConsumeProvider} for a request that was refused afterwards.
+     */
+    public void refundProvider(String firebaseUid, String provider) {
+        String name = provider.toLowerCase(Locale.ROOT);
+        RateLimitProperties.Limit limit = findProviderLimit(name);
+        if (limit != null) {
+            bucket("provider:" + name + ":" + firebaseUid, limit).addTokens(1);
+        }
+    }
+
+    /**
+     * Draws {@code weightedCharacters} from the user's character budget.
+     * A single request larger than the whole budget passes only on a full bucket, and the rest of it is charged
+     * against the refill, so the user waits as long as the request would have taken at the limit.
+     */
+    public boolean tryConsumeCharacters(String firebaseUid, long weightedCharacters) {
+        RateLimitProperties.Limit limit = properties.getCharacters();
+        if (limit == null || weightedCharacters <= 0) {
+            return true;
+        }
+        if (weightedCharacters <= limit.getCapacity()) {
+            return tryConsume("characters:" + firebaseUid, limit, weightedCharacters);
+        }
+        Bucket bucket = bucket("characters:" + firebaseUid, limit);
+        if (!bucket.tryConsume(limit.getCapacity())) {
+            return false;
+        }
+        // Leaves the bucket in debt, it refuses every request until the refill has paid the overflow back
+        bucket.consumeIgnoringRateLimits(weightedCharacters - limit.getCapacity());
+        return true;
+    }
+
+    private RateLimitProperties.Limit findProviderLimit(String name) {
+        for (Map.Entry<String, RateLimitProperties.Limit> entry : properties.getProviders().entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private boolean tryConsume(String key, RateLimitProperties.Limit limit, long tokens) {
+        return bucket(key, limit).tryConsume(tokens);
+    }
+
+    private Bucket bucket(String key, RateLimitProperties.Limit limit) {
+        return bucketStore.getBucket(key, () -> configurationFor(limit));
+    }
+
+    private static BucketConfiguration configurationFor(RateLimitProperties.Limit limit) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(limit.getCapacity())
+                        .refillGreedy(limit.getCapacity(), limit.getPeriod())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ttsapp.service.resilience;
+
+import com.ttsapp.config.ResilienceProperties;
+import com.ttsapp.service.CloudTTSService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out one {@link ResilientCloudTTSService} per provider, so every caller of a provider shares its bulkhead
+ * and circuit breaker.
+ */
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ProviderResilience {
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private final Map<String, ResilientCloudTTSService> services = new ConcurrentHashMap<>();
+
+    public ProviderResilience(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+    }
+
+    public CloudTTSService decorate(CloudTTSService service) {
+        String provider = service.getProviderName().toLowerCase(Locale.ROOT);
+        ResilientCloudTTSService[] replaced = new ResilientCloudTTSService[1];
+        ResilientCloudTTSService decorated = services.compute(provider, (name, existing) -> {
+            if (existing != null && existing.getDelegate() == service) {
+                return existing;
+            }
+            replaced[0] = existing;
+            if (existing != null) {
+                // A new implementation starts with a closed circuit instead of the old one's failure history
+                circuitBreakers.remove(name);
+            }
+            return create(name, service);
+        });
+        if (replaced[0] != null) {
+            // A provider implementation swapped at runtime, let calls already in its bulkhead finish
+            replaced[0].retire();
+        }
+        return decorated;
+    }
+
+    /**
+     * Drops the provider's circuit breaker and retires its bulkhead once its running calls have finished.
+     */
+    public void release(String provider) {
+        String name = provider.toLowerCase(Locale.ROOT);
+        ResilientCloudTTSService removed = services.remove(name);
+        if (removed != null) {
+            circuitBreakers.remove(name);
+            removed.retire();
+        }
+    }
+
+    private ResilientCloudTTSService create(String name, CloudTTSService service) {
+        ResilienceProperties.Settings settings = properties.forProvider(name);
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .waitDurationInOpenState(settings.getWaitInOpenState())
+                .ignoreException(e -> settings.getIgnoreExceptions().stream().anyMatch(type -> type.isInstance(e)))
+                .build();
+        return new ResilientCloudTTSService(service, settings, circuitBreakers.circuitBreaker(name, config),
+                meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        services.values().forEach(ResilientCloudTTSService::shutdown);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ttsapp.service.resilience;
+
+/**
+ * Thrown when a provider call is refused or abandoned to protect the rest of the backend:
+ * its bulkhead is full, its circuit is open, or it missed its deadline.
+ */
+public class ProviderUnavailableException extends RuntimeException {
+
+    private final String provider;
+    private final String reason;
+
+    public ProviderUnavailableException(String provider, String reason) {
+        super("Provider " + provider + " unavailable: " + reason);
+        this.provider = provider;
+        this.reason = reason;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
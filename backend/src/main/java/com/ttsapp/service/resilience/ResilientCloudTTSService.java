@@ -0,0 +1,202 @@
+package com.ttsapp.service.resilience;
+
+import com.ttsapp.config.ResilienceProperties;
+import com.ttsapp.dto.SynthesisResult;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.AbstractCloudTTSService;
+import com.ttsapp.service.CloudTTSService;
+import com.ttsapp.service.segment.SegmentLimits;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that isolates one provider from the rest of the backend.
+ * Calls run on the provider's own bounded pool (the bulkhead) under a deadline and a circuit breaker,
+ * so a stalled provider ties up its own threads rather than the servlet container's.
+ * A provider that splits long texts into chunks gets the bulkhead, deadline and breaker on every chunk's call,
+ * so a long document takes one slot per chunk in flight and each chunk has the whole deadline.
+ */
+public class ResilientCloudTTSService implements CloudTTSService {
+
+    private final CloudTTSService delegate;
+    private final ResilienceProperties.Settings settings;
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolExecutor bulkhead;
+    private final Timer successLatency;
+    private final Timer failureLatency;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private final Counter timeouts;
+    private final boolean guardsChunks;
+
+    public ResilientCloudTTSService(CloudTTSService delegate, ResilienceProperties.Settings settings,
+                                    CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.circuitBreaker = circuitBreaker;
+
+        String provider = delegate.getProviderName();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(provider + "-tts-call-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(settings.getMaxConcurrentCalls(),
+                settings.getMaxConcurrentCalls(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity())), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        this.bulkhead = executor;
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "tts.provider.bulkhead", Tags.of("provider", provider));
+
+        this.successLatency = latencyTimer(meterRegistry, provider, "success");
+        this.failureLatency = latencyTimer(meterRegistry, provider, "failure");
+        this.bulkheadRejections = rejectionCounter(meterRegistry, provider, "bulkhead_full");
+        this.circuitRejections = rejectionCounter(meterRegistry, provider, "circuit_open");
+        this.timeouts = rejectionCounter(meterRegistry, provider, "timeout");
+
+        if (delegate instanceof AbstractCloudTTSService chunked) {
+            chunked.setChunkGuard(providerCall -> call(providerCall::get, settings.getTimeout()));
+            this.guardsChunks = true;
+        } else {
+            this.guardsChunks = false;
+        }
+    }
+
+    @Override
+    public byte[] synthesizeSpeech(TTSRequest request) {
+        if (guardsChunks) {
+            return delegate.synthesizeSpeech(request);
+        }
+        return call(() -> delegate.synthesizeSpeech(request), settings.getTimeout());
+    }
+
+    @Override
+    public SynthesisResult synthesize(TTSRequest request) {
+        if (guardsChunks) {
+            return delegate.synthesize(request);
+        }
+        return call(() -> delegate.synthesize(request), settings.getTimeout());
+    }
+
+    @Override
+    public boolean streamSpeech(TTSRequest request, OutputStream out, LongAdder synthesized) throws IOException {
+        if (guardsChunks) {
+            return delegate.streamSpeech(request, out, synthesized);
+        }
+        try {
+            return call(() -> {
+                try {
+                    return delegate.streamSpeech(request, out, synthesized);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, settings.getStreamTimeout());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public SegmentLimits getChunkLimits() {
+        return delegate.getChunkLimits();
+    }
+
+    public CloudTTSService getDelegate() {
+        return delegate;
+    }
+
+    public void shutdown() {
+        bulkhead.shutdownNow();
+    }
+
+    /**
+     * Stops accepting calls and lets the running ones finish.
+     */
+    public void retire() {
+        bulkhead.shutdown();
+    }
+
+    private <T> T call(Callable<T> task, Duration timeout) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitRejections.increment();
+            throw new ProviderUnavailableException(getProviderName(), "circuit open");
+        }
+
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = bulkhead.submit(task);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.releasePermission();
+            bulkheadRejections.increment();
+            throw new ProviderUnavailableException(getProviderName(), "too many concurrent requests");
+        }
+
+        try {
+            T result = future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            successLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (TimeoutException e) {
+            // Interrupt the stalled call so its bulkhead slot comes back
+            future.cancel(true);
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, e);
+            failureLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            timeouts.increment();
+            throw new ProviderUnavailableException(getProviderName(), "timed out after " + timeout);
+        } catch (ExecutionException e) {
+            long elapsed = System.nanoTime() - start;
+            Throwable cause = e.getCause();
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, cause);
+            failureLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Error synthesizing speech with " + getProviderName(), cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            circuitBreaker.releasePermission();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + getProviderName(), e);
+        }
+    }
+
+    private static Timer latencyTimer(MeterRegistry registry, String provider, String outcome) {
+        return Timer.builder("tts.provider.latency")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String provider, String reason) {
+        return Counter.builder("tts.provider.rejections")
+                .tag("provider", provider)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
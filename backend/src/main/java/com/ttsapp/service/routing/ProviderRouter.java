@@ -0,0 +1,278 @@
+package com.ttsapp.service.routing;
+
+import com.ttsapp.config.RoutingProperties;
+import com.ttsapp.dto.SynthesisResult;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.dto.VoiceDTO;
+import com.ttsapp.service.CloudTTSService;
+import com.ttsapp.service.ProviderNotFoundException;
+import com.ttsapp.service.VoiceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Routes a synthesis request across providers to cut tail latency.
+ * The requested voice and its equivalents at other providers are ranked by observed p95, fastest first;
+ * the fastest is tried first, and the next ones serve as the hedge when it is slower than usual
+ * and as the fallback when it fails. Providers without samples rank last, the requested one ahead of the others.
+ * Only the winning attempt is returned, so only the winner is billed; the losers are cancelled.
+ */
+@Component
+@EnableConfigurationProperties(RoutingProperties.class)
+@Slf4j
+public class ProviderRouter {
+
+    private final RoutingProperties properties;
+    private final VoiceService voiceService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+
+    public ProviderRouter(RoutingProperties properties, VoiceService voiceService, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.voiceService = voiceService;
+        this.meterRegistry = meterRegistry;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("tts-route-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(0, properties.getMaxThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Synthesizes {@code request}, possibly with another provider; the result names the provider that served it.
+     */
+    public SynthesisResult synthesize(TTSRequest request, Function<String, Optional<CloudTTSService>> providers) {
+        List<Attempt> candidates = candidates(request, providers);
+        Attempt primary = candidates.get(0);
+        if (candidates.size() == 1) {
+            return primary.call();
+        }
+
+        CompletionService<SynthesisResult> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<SynthesisResult>, Attempt> running = new ConcurrentHashMap<>();
+        try {
+            running.put(completion.submit(primary::call), primary);
+        } catch (RejectedExecutionException e) {
+            // Routing capacity exhausted, serve the request as if routing were off
+            return primary.call();
+        }
+
+        int next = 1;
+        boolean hedged = !properties.isHedge();
+        long hedgeAt = System.nanoTime() + hedgeDelayNanos(primary.provider());
+        RuntimeException lastError = null;
+        try {
+            while (!running.isEmpty()) {
+                Future<SynthesisResult> done;
+                if (!hedged && next < candidates.size()) {
+                    done = completion.poll(Math.max(0, hedgeAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        hedged = true;
+                        next = submit(completion, running, candidates, next, "hedge");
+                        continue;
+                    }
+                } else {
+                    done = completion.take();
+                }
+
+                Attempt attempt = running.remove(done);
+                try {
+                    SynthesisResult result = done.get();
+                    count(attempt == primary ? "primary" : "alternate");
+                    return result;
+                } catch (ExecutionException e) {
+                    lastError = e.getCause() instanceof RuntimeException runtimeException
+                            ? runtimeException : new RuntimeException(e.getCause());
+                    log.warn("Synthesis with {} failed: {}", attempt.provider(), lastError.getMessage());
+                    if (properties.isFailover() && next < candidates.size()) {
+                        next = submit(completion, running, candidates, next, "failover");
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while synthesizing speech", e);
+        } finally {
+            // The losers, whose audio nobody will play or pay for
+            running.keySet().forEach(f -> f.cancel(true));
+        }
+        count("failed");
+        throw lastError;
+    }
+
+    /**
+     * Streams {@code request} to {@code out} and names the provider that served it.
+     * Audio is written as it arrives, so streams are never hedged; a failed provider is only replaced by the next
+     * candidate while nothing has been written yet.
+     *
+     * @param synthesized the counter for the characters each provider synthesized, by provider name
+     */
+    public String streamSpeech(TTSRequest request, Function<String, Optional<CloudTTSService>> providers,
+                               OutputStream out, Function<String, LongAdder> synthesized) throws IOException {
+        List<Attempt> candidates = candidates(request, providers);
+        WatchedOutputStream watched = new WatchedOutputStream(out);
+        for (int i = 0; ; i++) {
+            Attempt attempt = candidates.get(i);
+            try {
+                attempt.service.streamSpeech(attempt.request, watched, synthesized.apply(attempt.provider()));
+                count(i == 0 ? "primary" : "alternate");
+                return attempt.provider();
+            } catch (RuntimeException e) {
+                if (watched.written || !properties.isFailover() || i + 1 == candidates.size()) {
+                    count("failed");
+                    throw e;
+                }
+                log.warn("Streaming with {} failed: {}", attempt.provider(), e.getMessage());
+                meterRegistry.counter("tts.routing.attempts", "reason", "failover").increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int submit(CompletionService<SynthesisResult> completion, Map<Future<SynthesisResult>, Attempt> running,
+                       List<Attempt> candidates, int next, String reason) {
+        Attempt attempt = candidates.get(next);
+        try {
+            running.put(completion.submit(attempt::call), attempt);
+            log.info("Sending {} request to {}", reason, attempt.provider());
+            meterRegistry.counter("tts.routing.attempts", "reason", reason).increment();
+        } catch (RejectedExecutionException e) {
+            log.warn("No capacity for {} request to {}", reason, attempt.provider());
+        }
+        return next + 1;
+    }
+
+    private List<Attempt> candidates(TTSRequest request,
+                                     Function<String, Optional<CloudTTSService>> providers) {
+        List<Attempt> candidates = new ArrayList<>();
+        providers.apply(request.getProvider())
+                .ifPresent(service -> candidates.add(new Attempt(service, request)));
+        if (candidates.isEmpty()) {
+            throw new ProviderNotFoundException(request.getProvider());
+        }
+
+        voiceService.findEquivalentVoices(request.getProvider(), request.getVoiceId()).stream()
+                .filter(voice -> providers.apply(voice.getProvider()).isPresent())
+                .forEach(voice -> candidates.add(new Attempt(providers.apply(voice.getProvider()).get(),
+                        withVoice(request, voice))));
+        // Stable sort: among equally fast providers the requested one stays first
+        candidates.sort(Comparator.comparingLong(attempt -> observedP95(attempt.provider())));
+        return List.copyOf(candidates.subList(0, Math.min(candidates.size(), 1 + properties.getMaxAlternates())));
+    }
+
+    private long observedP95(String provider) {
+        long p95 = tracker(provider).percentile(0.95);
+        // Providers without samples yet rank last
+        return p95 < 0 ? Long.MAX_VALUE : p95;
+    }
+
+    private long hedgeDelayNanos(String provider) {
+        LatencyTracker tracker = tracker(provider);
+        long delay = tracker.count() < Math.min(20, properties.getLatencyWindow())
+                ? properties.getDefaultHedgeDelay().toNanos()
+                : tracker.percentile(properties.getHedgePercentile());
+        return Math.max(delay, properties.getMinHedgeDelay().toNanos());
+    }
+
+    private LatencyTracker tracker(String provider) {
+        return latencies.computeIfAbsent(provider.toLowerCase(Locale.ROOT),
+                p -> new LatencyTracker(properties.getLatencyWindow()));
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("tts.routing.requests", "outcome", outcome).increment();
+    }
+
+    private static TTSRequest withVoice(TTSRequest request, VoiceDTO voice) {
+        return TTSRequest.builder()
+                .text(request.getText())
+                .provider(voice.getProvider())
+                .voiceId(voice.getId())
+                .languageCode(request.getLanguageCode())
+                .speakingRate(request.getSpeakingRate())
+                .pitch(request.getPitch())
+                .audioQuality(request.getAudioQuality())
+                .build();
+    }
+
+    /**
+     * Remembers whether any audio reached the client, after which another provider can no longer take over.
+     */
+    private static final class WatchedOutputStream extends FilterOutputStream {
+        private boolean written;
+
+        private WatchedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            written = true;
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            written |= len > 0;
+            out.write(b, off, len);
+        }
+    }
+
+    private final class Attempt {
+        private final CloudTTSService service;
+        private final TTSRequest request;
+
+        private Attempt(CloudTTSService service, TTSRequest request) {
+            this.service = service;
+            this.request = request;
+        }
+
+        String provider() {
+            return request.getProvider();
+        }
+
+        SynthesisResult call() {
+            long start = System.nanoTime();
+            SynthesisResult result = service.synthesize(request);
+            if (!result.isCached()) {
+                // Cache hits say nothing about the provider's latency
+                tracker(provider()).record(System.nanoTime() - start);
+            }
+            result.setProvider(provider());
+            return result;
+        }
+    }
+}
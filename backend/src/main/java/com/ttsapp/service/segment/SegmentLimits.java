@@ -0,0 +1,50 @@
+package com.ttsapp.service.segment;
+
+/**
+ * The most text a provider accepts in one call, in UTF-16 characters and in UTF-8 bytes.
+ * SSML markup counts towards both.
+ *
+ * @param maxChars characters per call
+ * @param maxBytes UTF-8 bytes per call, or {@code 0} when the provider only limits characters
+ */
+public record SegmentLimits(int maxChars, int maxBytes) {
+
+    public static final SegmentLimits DEFAULT = new SegmentLimits(4000, 0);
+
+    public SegmentLimits {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive: " + maxChars);
+        }
+    }
+
+    public boolean fits(long chars, long bytes) {
+        return chars <= maxChars && (maxBytes <= 0 || bytes <= maxBytes);
+    }
+
+    public boolean fits(CharSequence text) {
+        int length = text.length();
+        if (length > maxChars) {
+            return false;
+        }
+        // A UTF-16 char never takes more than three UTF-8 bytes, so most texts need no counting
+        return maxBytes <= 0 || (long) length * 3 <= maxBytes || utf8Length(text, 0, length) <= maxBytes;
+    }
+
+    static int utf8Length(CharSequence text, int start, int end) {
+        int bytes = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
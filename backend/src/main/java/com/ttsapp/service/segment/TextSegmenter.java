@@ -0,0 +1,397 @@
+package com.ttsapp.service.segment;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits plain text or SSML into chunks that fit a provider's {@link SegmentLimits}.
+ * Chunks preferably end on an anchor, a sentence end picked by the content of the sentence before it, so
+ * boundaries do not move with every edit earlier in the text and the other chunks keep their cached audio.
+ * A chunk ends on the first anchor in the last tenth of what fits, so chunks stay nearly full; without one,
+ * on the furthest sentence boundary that leaves it at least half full, otherwise between words.
+ * SSML elements still open at a split are closed at the end of the chunk and reopened at the start of the next
+ * one, so every chunk is a well-formed document on its own.
+ */
+public final class TextSegmenter {
+
+    // java.text.BreakIterator ends a sentence after any period followed by a capital letter
+    private static final Set<String> ABBREVIATIONS = Set.of(
+            "mr", "mrs", "ms", "dr", "prof", "sr", "jr", "st", "mt", "vs", "etc", "inc", "ltd", "fig",
+            "e.g", "i.e", "a.m", "p.m", "u.s", "u.k");
+
+    // Anchors are a tenth of a chunk apart, and a chunk ends on one only within its last tenth
+    private static final int ANCHOR_SPACING_DIVISOR = 10;
+
+    private TextSegmenter() {
+    }
+
+    public static boolean isSsml(String text) {
+        String start = text.stripLeading();
+        return start.startsWith("<speak") || start.startsWith("<?xml");
+    }
+
+    /**
+     * Splits {@code text} into chunks that each fit {@code limits}.
+     *
+     * @param languageCode BCP 47 tag choosing the sentence rules, English when {@code null}
+     * @throws IllegalArgumentException if a single SSML tag does not fit the limits, or the SSML is malformed
+     */
+    public static List<String> segment(String text, String languageCode, SegmentLimits limits) {
+        boolean ssml = isSsml(text);
+        int[] sentenceEnds = sentenceEnds(text, ssml, locale(languageCode));
+        int[] anchors = anchors(text, sentenceEnds, limits);
+        List<String> chunks = new ArrayList<>();
+
+        Element open = null;
+        int start = skipWhitespace(text, 0);
+        while (start < text.length()) {
+            Cut cut = cut(text, ssml, start, open, limits, sentenceEnds, anchors);
+            chunks.add(render(text, start, cut.end(), open, cut.open()));
+            open = cut.open();
+            start = skipWhitespace(text, cut.end());
+        }
+        return chunks;
+    }
+
+    /**
+     * Walks forward from {@code start} one token (a character, surrogate pair, entity or tag) at a time
+     * while the chunk, including the tags reopened before it and closed after it, still fits.
+     */
+    private static Cut cut(String text, boolean ssml, int start, Element open, SegmentLimits limits,
+                           int[] sentenceEnds, int[] anchors) {
+        int length = text.length();
+        long chars = Element.openChars(open);
+        long bytes = Element.openBytes(open);
+        Element stack = open;
+
+        // Furthest fitting end of each kind, with the elements open there
+        int sentenceEnd = -1;
+        Element sentenceOpen = null;
+        int wordEnd = -1;
+        Element wordOpen = null;
+        int charEnd = -1;
+        Element charOpen = null;
+        int nextSentence = firstAtOrAfter(sentenceEnds, start + 1);
+        List<Cut> anchorCuts = new ArrayList<>();
+        int nextAnchor = firstAtOrAfter(anchors, start + 1);
+
+        int i = start;
+        while (i < length) {
+            char c = text.charAt(i);
+            int tokenEnd;
+            Element after = stack;
+            if (ssml && c == '<') {
+                tokenEnd = tagEnd(text, i);
+                after = applyTag(text, i, tokenEnd, stack);
+            } else if (ssml && c == '&') {
+                tokenEnd = entityEnd(text, i);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                tokenEnd = i + 2;
+            } else {
+                tokenEnd = i + 1;
+            }
+
+            int tokenChars = tokenEnd - i;
+            int tokenBytes = SegmentLimits.utf8Length(text, i, tokenEnd);
+            if (!limits.fits(chars + tokenChars + Element.closeChars(after),
+                    bytes + tokenBytes + Element.closeBytes(after))) {
+                break;
+            }
+            chars += tokenChars;
+            bytes += tokenBytes;
+            stack = after;
+            i = tokenEnd;
+
+            charEnd = i;
+            charOpen = stack;
+            if (i < length && Character.isWhitespace(text.charAt(i))) {
+                wordEnd = i;
+                wordOpen = stack;
+            }
+            while (nextSentence < sentenceEnds.length && sentenceEnds[nextSentence] < i) {
+                nextSentence++;
+            }
+            if (nextSentence < sentenceEnds.length && sentenceEnds[nextSentence] == i) {
+                sentenceEnd = i;
+                sentenceOpen = stack;
+            }
+            while (nextAnchor < anchors.length && anchors[nextAnchor] < i) {
+                nextAnchor++;
+            }
+            if (nextAnchor < anchors.length && anchors[nextAnchor] == i) {
+                anchorCuts.add(new Cut(i, stack));
+            }
+        }
+
+        if (i >= length) {
+            return new Cut(length, stack);
+        }
+        if (charEnd < 0) {
+            throw new IllegalArgumentException("SSML tag at offset " + start + " does not fit in a single request");
+        }
+        int minPreferred = start + (i - start) / 2;
+        int minAnchored = start + (i - start) / ANCHOR_SPACING_DIVISOR * (ANCHOR_SPACING_DIVISOR - 1);
+        for (Cut anchor : anchorCuts) {
+            if (anchor.end() > minAnchored) {
+                return anchor;
+            }
+        }
+        if (sentenceEnd > minPreferred || sentenceEnd > wordEnd) {
+            return new Cut(sentenceEnd, sentenceOpen);
+        }
+        if (wordEnd >= 0) {
+            return new Cut(wordEnd, wordOpen);
+        }
+        return new Cut(charEnd, charOpen);
+    }
+
+    private static String render(String text, int start, int end, Element open, Element close) {
+        StringBuilder chunk = new StringBuilder(end - start + 64);
+        Element.appendOpenTags(chunk, open);
+        int contentEnd = end;
+        while (contentEnd > start && Character.isWhitespace(text.charAt(contentEnd - 1))) {
+            contentEnd--;
+        }
+        chunk.append(text, start, contentEnd);
+        for (Element e = close; e != null; e = e.parent) {
+            chunk.append("</").append(e.name).append('>');
+        }
+        return chunk.toString();
+    }
+
+    /**
+     * Offsets just past the last character of each sentence except the final one, moved past closing tags
+     * directly after it so elements ending with the sentence are not split off.
+     */
+    private static int[] sentenceEnds(String text, boolean ssml, Locale locale) {
+        String content = text;
+        int[] offsets = null;
+        if (ssml) {
+            // Sentence rules apply to the spoken text, with the original offset of each of its characters
+            StringBuilder spoken = new StringBuilder(text.length());
+            offsets = new int[text.length()];
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (c == '<') {
+                    i = tagEnd(text, i);
+                } else if (c == '&') {
+                    int end = entityEnd(text, i);
+                    offsets[spoken.length()] = end - 1;
+                    spoken.append(decodeEntity(text, i, end));
+                    i = end;
+                } else {
+                    offsets[spoken.length()] = i;
+                    spoken.append(c);
+                    i++;
+                }
+            }
+            content = spoken.toString();
+        }
+
+        BreakIterator sentences = BreakIterator.getSentenceInstance(locale);
+        sentences.setText(content);
+        int[] ends = new int[16];
+        int count = 0;
+        for (int boundary = sentences.next(); boundary != BreakIterator.DONE && boundary < content.length();
+             boundary = sentences.next()) {
+            int end = boundary;
+            while (end > 0 && Character.isWhitespace(content.charAt(end - 1))) {
+                end--;
+            }
+            if (end == 0 || isAbbreviation(content, end)) {
+                continue;
+            }
+            int offset = offsets == null ? end : offsets[end - 1] + 1;
+            if (ssml) {
+                offset = skipClosingTags(text, offset);
+            }
+            if (count == ends.length) {
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            ends[count++] = offset;
+        }
+        return Arrays.copyOf(ends, count);
+    }
+
+    /**
+     * Sentence ends that chunks prefer to end on, chosen by the sentence before them alone: every one followed
+     * by a line break, and others with a probability proportional to the sentence's length, so anchors are
+     * about a tenth of a chunk apart whatever the sentence lengths.
+     */
+    private static int[] anchors(String text, int[] sentenceEnds, SegmentLimits limits) {
+        long spacing = Math.max(1, (limits.maxBytes() > 0 ? Math.min(limits.maxChars(), limits.maxBytes())
+                : limits.maxChars()) / ANCHOR_SPACING_DIVISOR);
+        int[] anchors = new int[sentenceEnds.length];
+        int count = 0;
+        int sentenceStart = 0;
+        for (int end : sentenceEnds) {
+            int next = skipWhitespace(text, end);
+            boolean lineBreak = false;
+            for (int i = end; i < next && !lineBreak; i++) {
+                lineBreak = text.charAt(i) == '\n';
+            }
+            // The low 16 bits of the hash, uniform over [0, 65536), against the sentence's share of the spacing
+            long threshold = (end - sentenceStart) * 65536L / spacing;
+            if (lineBreak || (contentHash(text, sentenceStart, end) & 0xFFFF) < threshold) {
+                anchors[count++] = end;
+            }
+            sentenceStart = next;
+        }
+        return Arrays.copyOf(anchors, count);
+    }
+
+    private static int contentHash(String text, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        // Murmur3's finalizer, texts that differ in a single character get unrelated values
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isAbbreviation(String content, int end) {
+        if (content.charAt(end - 1) != '.') {
+            return false;
+        }
+        int start = end - 1;
+        while (start > 0 && (Character.isLetter(content.charAt(start - 1)) || content.charAt(start - 1) == '.')) {
+            start--;
+        }
+        String word = content.substring(start, end - 1);
+        // A single capital is an initial, as in "J. R. R. Tolkien"
+        return word.length() == 1 && Character.isUpperCase(word.charAt(0))
+                || ABBREVIATIONS.contains(word.toLowerCase(Locale.ROOT));
+    }
+
+    private static int skipClosingTags(String text, int offset) {
+        int i = offset;
+        while (true) {
+            int next = skipWhitespace(text, i);
+            if (!text.startsWith("</", next)) {
+                return i;
+            }
+            i = tagEnd(text, next);
+        }
+    }
+
+    private static int tagEnd(String text, int start) {
+        boolean comment = text.startsWith("<!--", start);
+        int close = comment ? text.indexOf("-->", start) : text.indexOf('>', start);
+        if (close < 0) {
+            throw new IllegalArgumentException("Unterminated SSML tag at offset " + start);
+        }
+        return comment ? close + 3 : close + 1;
+    }
+
+    private static int entityEnd(String text, int start) {
+        int semicolon = text.indexOf(';', start);
+        // Not an entity reference, a bare ampersand is kept as an ordinary character
+        return semicolon > start && semicolon - start <= 10 ? semicolon + 1 : start + 1;
+    }
+
+    private static char decodeEntity(String text, int start, int end) {
+        return switch (text.substring(start, end)) {
+            case "&quot;" -> '"';
+            case "&apos;" -> '\'';
+            case "&lt;" -> '<';
+            case "&gt;" -> '>';
+            default -> '&';
+        };
+    }
+
+    private static Element applyTag(String text, int start, int end, Element stack) {
+        char kind = text.charAt(start + 1);
+        if (kind == '?' || kind == '!' || text.charAt(end - 2) == '/') {
+            // Declaration, comment or self-closing element such as <break/>
+            return stack;
+        }
+        if (kind == '/') {
+            if (stack == null) {
+                throw new IllegalArgumentException("Unbalanced SSML closing tag at offset " + start);
+            }
+            return stack.parent;
+        }
+        int nameEnd = start + 1;
+        while (nameEnd < end - 1 && !Character.isWhitespace(text.charAt(nameEnd)) && text.charAt(nameEnd) != '/') {
+            nameEnd++;
+        }
+        return new Element(text.substring(start + 1, nameEnd), text.substring(start, end), stack);
+    }
+
+    private static int skipWhitespace(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int firstAtOrAfter(int[] sorted, int value) {
+        int index = Arrays.binarySearch(sorted, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static Locale locale(String languageCode) {
+        return languageCode == null || languageCode.isBlank() ? Locale.ENGLISH : Locale.forLanguageTag(languageCode);
+    }
+
+    private record Cut(int end, Element open) {
+    }
+
+    /**
+     * An open SSML element in an immutable stack, so the elements open at any point can be kept without copying.
+     * Each entry carries the cost of reopening and closing it together with everything beneath it.
+     */
+    private static final class Element {
+        private final String name;
+        private final String openTag;
+        private final Element parent;
+        private final int openChars;
+        private final int openBytes;
+        private final int closeChars;
+        private final int closeBytes;
+
+        Element(String name, String openTag, Element parent) {
+            this.name = name;
+            this.openTag = openTag;
+            this.parent = parent;
+            int closeTagChars = name.length() + 3;
+            this.openChars = openChars(parent) + openTag.length();
+            this.openBytes = openBytes(parent) + SegmentLimits.utf8Length(openTag, 0, openTag.length());
+            this.closeChars = closeChars(parent) + closeTagChars;
+            this.closeBytes = closeBytes(parent) + SegmentLimits.utf8Length(name, 0, name.length()) + 3;
+        }
+
+        static int openChars(Element e) {
+            return e == null ? 0 : e.openChars;
+        }
+
+        static int openBytes(Element e) {
+            return e == null ? 0 : e.openBytes;
+        }
+
+        static int closeChars(Element e) {
+            return e == null ? 0 : e.closeChars;
+        }
+
+        static int closeBytes(Element e) {
+            return e == null ? 0 : e.closeBytes;
+        }
+
+        static void appendOpenTags(StringBuilder out, Element e) {
+            if (e != null) {
+                appendOpenTags(out, e.parent);
+                out.append(e.openTag);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Rate-limit buckets shared by all replicas (tts.rate-limit.store=postgres), read and written by bucket4j-postgresql.
+-- expires_at is epoch millis; rows past it hold full buckets and are deleted in batches.
+CREATE TABLE IF NOT EXISTS rate_limit_bucket (
+    id VARCHAR(255) PRIMARY KEY,
+    state BYTEA,
+    expires_at BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS rate_limit_bucket_expires_at_idx ON rate_limit_bucket (expires_at);
@@ -0,0 +1,98 @@
+package com.ttsapp.config;
+
+import com.google.firebase.ErrorCode;
+import com.google.firebase.auth.FirebaseAuthException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FirebaseTokenVerifierTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger firebaseCalls = new AtomicInteger();
+
+    @Test
+    public void testRepeatedTokenIsVerifiedOnce() throws Exception {
+        FirebaseTokenVerifier verifier = newVerifier(NOW.plusSeconds(3600));
+
+        assertEquals("uid-1", verifier.verify("token-1"));
+        assertEquals("uid-1", verifier.verify("token-1"));
+        assertEquals("uid-1", verifier.verify("token-1"));
+
+        assertEquals(1, firebaseCalls.get());
+        assertEquals(2.0, registry.get("auth.token.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, registry.get("auth.token.verify").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void testTokenIsVerifiedAgainAfterItsExpiry() throws Exception {
+        FirebaseTokenVerifier verifier = newVerifier(NOW.plusSeconds(60));
+
+        verifier.verify("token-1");
+        clock.instant = NOW.plusSeconds(61);
+        verifier.verify("token-1");
+
+        assertEquals(2, firebaseCalls.get());
+    }
+
+    @Test
+    public void testRejectedTokenIsNotCached() {
+        FirebaseTokenVerifier verifier = new FirebaseTokenVerifier(registry, 100, clock) {
+            @Override
+            protected VerifiedToken verifyWithFirebase(String idToken) throws FirebaseAuthException {
+                firebaseCalls.incrementAndGet();
+                throw new FirebaseAuthException(ErrorCode.INVALID_ARGUMENT, "bad token", null, null, null);
+            }
+        };
+
+        assertThrows(FirebaseAuthException.class, () -> verifier.verify("token-1"));
+        assertThrows(FirebaseAuthException.class, () -> verifier.verify("token-1"));
+
+        assertEquals(2, firebaseCalls.get());
+        assertEquals(2, registry.get("auth.token.verify").tag("outcome", "failure").timer().count());
+    }
+
+    private FirebaseTokenVerifier newVerifier(Instant expiresAt) {
+        return new FirebaseTokenVerifier(registry, 100, clock) {
+            @Override
+            protected VerifiedToken verifyWithFirebase(String idToken) {
+                firebaseCalls.incrementAndGet();
+                return new VerifiedToken("uid-1", expiresAt);
+            }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
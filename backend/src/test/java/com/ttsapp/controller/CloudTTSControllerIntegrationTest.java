@@ -2,6 +2,7 @@ package com.ttsapp.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ttsapp.AbstractIntegrationTest;
+import com.ttsapp.config.FirebaseTokenVerifier;
 import com.ttsapp.dto.TTSRequest;
 import com.ttsapp.model.User;
 import com.ttsapp.repository.UserRepository;
@@ -9,11 +10,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -28,6 +36,9 @@ public class CloudTTSControllerIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockitoBean
+    private FirebaseTokenVerifier tokenVerifier;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -67,4 +78,26 @@ public class CloudTTSControllerIntegrationTest extends AbstractIntegrationTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    public void testSynthesizeStreamSuccess() throws Exception {
+        when(tokenVerifier.verify("valid-token")).thenReturn("test-uid");
+        TTSRequest request = TTSRequest.builder()
+                .text("Hello world")
+                .provider("amazon")
+                .voiceId("Joanna")
+                .build();
+
+        // A real token, not a mocked user, so the async dispatch has to find the authentication on its own
+        MvcResult result = mockMvc.perform(post("/api/tts/synthesize/stream")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer valid-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes("Mock Amazon Polly Audio Data".getBytes()));
+    }
 }
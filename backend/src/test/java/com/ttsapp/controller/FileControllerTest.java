@@ -0,0 +1,64 @@
+package com.ttsapp.controller;
+
+import com.ttsapp.config.FirebaseTokenVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class FileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FirebaseTokenVerifier tokenVerifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(tokenVerifier.verify("valid-token")).thenReturn("test-uid");
+    }
+
+    @Test
+    public void testStreamedExtractionWithBearerToken() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "notes.txt", "text/plain",
+                "Hello streaming world".getBytes(StandardCharsets.UTF_8));
+
+        // A real token, not a mocked user, so the async dispatch has to find the authentication on its own
+        MvcResult result = mockMvc.perform(multipart("/api/files/extract-text/stream").file(file)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer valid-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Hello streaming world")));
+    }
+
+    @Test
+    public void testStreamedExtractionWithoutTokenIsRejected() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "notes.txt", "text/plain",
+                "Hello".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/files/extract-text/stream").file(file))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,70 @@
+package com.ttsapp.controller;
+
+import com.ttsapp.config.RateLimitProperties;
+import com.ttsapp.dto.TTSJobRequest;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.VoiceService;
+import com.ttsapp.service.ratelimit.LocalBucketStore;
+import com.ttsapp.service.ratelimit.RateLimitExceededException;
+import com.ttsapp.service.ratelimit.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestBodyRateLimitAdviceTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final RateLimiter rateLimiter = new RateLimiter(
+            new LocalBucketStore(Duration.ofMinutes(10), 1000), properties);
+    private final RequestBodyRateLimitAdvice advice = new RequestBodyRateLimitAdvice(rateLimiter, new VoiceService());
+
+    @BeforeEach
+    public void setUp() {
+        properties.setCharacters(new RateLimitProperties.Limit(10_000, Duration.ofMinutes(1)));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("uid-1", null, List.of()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testJobsDrawFromTheCharacterBudget() {
+        // A premium voice counts each character four times
+        TTSJobRequest job = TTSJobRequest.builder()
+                .text("x".repeat(2000))
+                .provider("google")
+                .voiceId("en-US-Wavenet-A")
+                .build();
+
+        advice.afterBodyRead(job, null, null, TTSJobRequest.class, null);
+
+        assertThrows(RateLimitExceededException.class,
+                () -> advice.afterBodyRead(job, null, null, TTSJobRequest.class, null));
+    }
+
+    @Test
+    public void testRequestRefusedForCharactersKeepsItsProviderToken() {
+        properties.getProviders().put("google", new RateLimitProperties.Limit(1, Duration.ofDays(1)));
+        rateLimiter.tryConsumeCharacters("uid-1", 10_000);
+        TTSRequest request = TTSRequest.builder()
+                .text("Hello")
+                .provider("google")
+                .voiceId("en-US-Standard-A")
+                .build();
+
+        assertThrows(RateLimitExceededException.class,
+                () -> advice.afterBodyRead(request, null, null, TTSRequest.class, null));
+        assertTrue(rateLimiter.tryConsumeProvider("uid-1", "google"));
+    }
+}
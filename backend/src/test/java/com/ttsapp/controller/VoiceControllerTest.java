@@ -0,0 +1,38 @@
+package com.ttsapp.controller;
+
+import com.ttsapp.service.VoiceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class VoiceControllerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new VoiceController(new VoiceService())).build();
+
+    @Test
+    public void testMatchingEtagGetsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/voices/google"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].provider").value("google"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/voices/google").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/voices/azure").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/voices/languages"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"en-US\"]"));
+    }
+}
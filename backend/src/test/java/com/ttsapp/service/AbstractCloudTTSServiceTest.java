@@ -0,0 +1,179 @@
+package com.ttsapp.service;
+
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.cache.ChunkAudioCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AbstractCloudTTSServiceTest {
+
+    private AbstractCloudTTSService service;
+
+    @AfterEach
+    public void tearDown() {
+        if (service != null) {
+            service.shutdownChunkExecutor();
+        }
+    }
+
+    @Test
+    public void testChunksAreReassembledInOrder() {
+        service = new TestService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                // Earlier chunks finish last to prove ordering does not depend on completion order
+                sleep(request.getText().startsWith("a") ? 200 : 10);
+                return request.getText().substring(0, 1).getBytes(StandardCharsets.UTF_8);
+            }
+        };
+
+        String text = "a".repeat(3999) + " " + "b".repeat(3999) + " " + "c".repeat(100);
+        byte[] audio = service.synthesizeSpeech(request(text));
+
+        assertEquals("abc", new String(audio, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testChunksAreSynthesizedConcurrently() throws InterruptedException {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        service = new TestService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                allStarted.countDown();
+                try {
+                    // Only completes if every chunk is in flight at the same time
+                    assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new byte[] {1};
+            }
+        };
+
+        String text = "x".repeat(3999) + " " + "y".repeat(3999) + " " + "z".repeat(100);
+        assertEquals(3, service.synthesizeSpeech(request(text)).length);
+    }
+
+    @Test
+    public void testFailedChunkCancelsRemainingChunks() {
+        service = new TestService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                if (request.getText().startsWith("a")) {
+                    throw new IllegalStateException("provider failure");
+                }
+                sleep(5000);
+                return new byte[0];
+            }
+        };
+
+        String text = "a".repeat(3999) + " " + "b".repeat(3999) + " " + "c".repeat(100);
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> service.synthesizeSpeech(request(text)));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+    }
+
+    @Test
+    public void testBrokenStreamReportsCharactersSynthesizedSoFar() {
+        AtomicInteger synthesizedChars = new AtomicInteger();
+        service = new TestService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                if (request.getText().startsWith("c")) {
+                    sleep(200);
+                    throw new IllegalStateException("provider failure");
+                }
+                synthesizedChars.addAndGet(request.getText().length());
+                return request.getText().substring(0, 1).getBytes(StandardCharsets.UTF_8);
+            }
+        };
+
+        String text = "a".repeat(3999) + " " + "b".repeat(3999) + " " + "c".repeat(100);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LongAdder synthesized = new LongAdder();
+        assertThrows(IllegalStateException.class, () -> service.streamSpeech(request(text), out, synthesized));
+
+        assertEquals("ab", out.toString(StandardCharsets.UTF_8));
+        assertEquals(synthesizedChars.get(), synthesized.sum());
+    }
+
+    @Test
+    public void testOnlyChangedChunksAreResynthesized() {
+        AtomicInteger providerCalls = new AtomicInteger();
+        service = new TestService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                providerCalls.incrementAndGet();
+                return request.getText().substring(0, 1).getBytes(StandardCharsets.UTF_8);
+            }
+        };
+        service.setChunkAudioCache(new ChunkAudioCache(new SimpleMeterRegistry(), 1024 * 1024));
+
+        service.synthesizeSpeech(request("a".repeat(3999) + " " + "b".repeat(3999) + " " + "c".repeat(100)));
+        byte[] edited = service.synthesizeSpeech(
+                request("a".repeat(3999) + " " + "d".repeat(3999) + " " + "c".repeat(100)));
+
+        assertEquals("adc", new String(edited, StandardCharsets.UTF_8));
+        assertEquals(4, providerCalls.get());
+    }
+
+    @Test
+    public void testInsertedWordLeavesOtherChunksCached() {
+        AtomicInteger providerCalls = new AtomicInteger();
+        service = new TestService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                providerCalls.incrementAndGet();
+                return new byte[] {1};
+            }
+        };
+        service.setChunkAudioCache(new ChunkAudioCache(new SimpleMeterRegistry(), 1024 * 1024));
+
+        int chunks = service.synthesizeSpeech(request(sentences(""))).length;
+        assertTrue(chunks >= 3);
+        service.synthesizeSpeech(request(sentences("really ")));
+
+        assertEquals(chunks + 1, providerCalls.get());
+    }
+
+    private static String sentences(String insertedInFirst) {
+        // 100 of these fill a default chunk to the last character, so packing chunks full would shift them all
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            text.append(String.format("Sentence %03d %stalks about topic %02d here. ", i,
+                    i == 0 ? insertedInFirst : "", i * 7 % 13));
+        }
+        return text.toString();
+    }
+
+    private static TTSRequest request(String text) {
+        return TTSRequest.builder().text(text).provider("test").build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private abstract static class TestService extends AbstractCloudTTSService {
+        @Override
+        public String getProviderName() {
+            return "test";
+        }
+    }
+}
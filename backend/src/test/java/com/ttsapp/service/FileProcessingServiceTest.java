@@ -0,0 +1,127 @@
+package com.ttsapp.service;
+
+import com.ttsapp.service.cache.Digests;
+import com.ttsapp.service.cache.ExtractionCache;
+import com.ttsapp.service.extraction.DocumentFormat;
+import com.ttsapp.service.extraction.DocumentTooLargeException;
+import com.ttsapp.service.extraction.ExtractionExecutor;
+import com.ttsapp.service.extraction.PdfTextExtractor;
+import com.ttsapp.service.extraction.TextSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FileProcessingServiceTest {
+
+    private static final byte[] CONTENT = "%PDF-1.4 not really a PDF".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path dir;
+
+    private PdfTextExtractor pdfTextExtractor;
+    private FileProcessingService service;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        pdfTextExtractor = mock(PdfTextExtractor.class);
+        when(pdfTextExtractor.extractText(any())).thenReturn("Chapter one");
+        when(pdfTextExtractor.countPages(any())).thenReturn(10);
+        ExtractionCache cache = new ExtractionCache(new SimpleMeterRegistry(), dir.resolve("cache").toString(),
+                1024 * 1024);
+        service = new FileProcessingService(pdfTextExtractor, cache,
+                new ExtractionExecutor(new SimpleMeterRegistry(), 1, 1, 5, 30000), dir.resolve("spool").toString(), 16384,
+                1024, 100);
+    }
+
+    @Test
+    public void testRepeatedUploadIsServedFromCache() throws IOException {
+        assertEquals("Chapter one", service.extractText(pdf("book.pdf"), "alice"));
+        assertEquals("Chapter one", service.extractText(pdf("same-book.pdf"), "bob"));
+
+        verify(pdfTextExtractor, times(1)).extractText(any());
+        try (var spooled = Files.list(dir.resolve("spool"))) {
+            assertEquals(0, spooled.count());
+        }
+    }
+
+    @Test
+    public void testCachedTextIsFoundByContentHash() throws IOException {
+        String sha256 = Digests.toHex(Digests.newSha256().digest(CONTENT));
+        assertEquals(Optional.empty(), service.findExtractedText(DocumentFormat.PDF, sha256, "alice"));
+
+        service.extractText(pdf("book.pdf"), "alice");
+
+        assertEquals(Optional.of("Chapter one"),
+                service.findExtractedText(DocumentFormat.PDF, sha256.toUpperCase(), "alice"));
+        assertTrue(service.findExtractedText(DocumentFormat.DOCX, sha256, "alice").isEmpty());
+    }
+
+    @Test
+    public void testHashLookupOnlyAnswersUsersWhoUploadedTheDocument() throws IOException {
+        String sha256 = Digests.toHex(Digests.newSha256().digest(CONTENT));
+        service.extractText(pdf("book.pdf"), "alice");
+
+        assertTrue(service.findExtractedText(DocumentFormat.PDF, sha256, "bob").isEmpty());
+
+        // Uploading the bytes proves bob has the document, the cached text is reused and then found by hash
+        service.extractText(pdf("book.pdf"), "bob");
+        assertEquals(Optional.of("Chapter one"), service.findExtractedText(DocumentFormat.PDF, sha256, "bob"));
+        verify(pdfTextExtractor, times(1)).extractText(any());
+    }
+
+    @Test
+    public void testMalformedHashIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findExtractedText(DocumentFormat.PDF, "../../etc/passwd", "alice"));
+    }
+
+    @Test
+    public void testOversizedUploadIsRefusedBeforeSpooling() throws IOException {
+        MockMultipartFile large = new MockMultipartFile("file", "book.pdf", "application/pdf", new byte[2048]);
+
+        assertThrows(DocumentTooLargeException.class, () -> service.extractText(large, "alice"));
+
+        try (var spooled = Files.list(dir.resolve("spool"))) {
+            assertEquals(0, spooled.count());
+        }
+    }
+
+    @Test
+    public void testTooManyPagesAreRefusedUnlessARangeIsRequested() throws IOException {
+        when(pdfTextExtractor.countPages(any())).thenReturn(500);
+
+        assertThrows(DocumentTooLargeException.class, () -> service.extractText(pdf("book.pdf"), "alice"));
+        verify(pdfTextExtractor, never()).extractText(any());
+
+        Path spooled = service.spool(pdf("book.pdf"), DocumentFormat.PDF).path();
+        assertThrows(DocumentTooLargeException.class, () -> service.stream(spooled, DocumentFormat.PDF, 1, 500));
+        when(pdfTextExtractor.pages(any(), anyInt(), anyInt())).thenReturn(mock(TextSource.class));
+        try (TextSource source = service.stream(spooled, DocumentFormat.PDF, 401, 500)) {
+            assertNull(source.next());
+        }
+    }
+
+    private static MockMultipartFile pdf(String filename) {
+        return new MockMultipartFile("file", filename, "application/pdf", CONTENT);
+    }
+}
@@ -0,0 +1,134 @@
+package com.ttsapp.service;
+
+import com.ttsapp.config.ChunkingProperties;
+import com.ttsapp.config.ResilienceProperties;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.cache.AudioCache;
+import com.ttsapp.service.resilience.ProviderResilience;
+import com.ttsapp.service.resilience.ProviderUnavailableException;
+import com.ttsapp.service.segment.SegmentLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProviderRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProviderResilience resilience = new ProviderResilience(new ResilienceProperties(), meterRegistry);
+    private final ChunkingProperties chunkingProperties = new ChunkingProperties();
+    private final ProviderRegistry registry = new ProviderRegistry(List.of(provider("amazon", "polly")),
+            new AudioCache(meterRegistry, 1024 * 1024, "", 0), resilience, chunkingProperties);
+
+    @AfterEach
+    public void tearDown() {
+        resilience.shutdown();
+    }
+
+    @Test
+    public void testLookupIgnoresCase() {
+        assertSame(registry.get("amazon"), registry.get("AMAZON"));
+        assertTrue(registry.find("Amazon").isPresent());
+        assertTrue(registry.find(null).isEmpty());
+    }
+
+    @Test
+    public void testUnknownProviderIsTyped() {
+        ProviderNotFoundException e = assertThrows(ProviderNotFoundException.class, () -> registry.get("acme"));
+        assertEquals("Provider not found: acme", e.getMessage());
+    }
+
+    @Test
+    public void testProvidersCanBeRegisteredAtRuntime() {
+        registry.register(provider("Acme", "acme"));
+        assertEquals(Set.of("amazon", "acme"), registry.getProviderNames());
+        assertArrayEquals(bytes("acme"), registry.get("acme").synthesizeSpeech(request("acme")));
+
+        // Replacing an implementation takes effect for the next lookup
+        registry.register(provider("acme", "acme v2"));
+        assertArrayEquals(bytes("acme v2"), registry.get("acme").synthesizeSpeech(request("acme")));
+
+        registry.unregister("ACME");
+        assertTrue(registry.find("acme").isEmpty());
+    }
+
+    @Test
+    public void testRuntimeProviderGetsItsChunkingLimits() {
+        ChunkingProperties.Settings settings = new ChunkingProperties.Settings();
+        settings.setMaxChars(1000);
+        settings.setMaxBytes(1500);
+        chunkingProperties.getProviders().put("acme", settings);
+
+        registry.register(new AbstractCloudTTSService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                return bytes("acme");
+            }
+
+            @Override
+            public String getProviderName() {
+                return "Acme";
+            }
+        });
+
+        assertEquals(new SegmentLimits(1000, 1500), registry.get("acme").getChunkLimits());
+    }
+
+    @Test
+    public void testReplacedProviderStartsWithClosedCircuit() {
+        registry.register(failingProvider("acme"));
+        for (int i = 0; i < 20; i++) {
+            assertThrows(IllegalStateException.class, () -> registry.get("acme").synthesizeSpeech(request("acme")));
+        }
+        assertThrows(ProviderUnavailableException.class,
+                () -> registry.get("acme").synthesizeSpeech(request("acme")));
+
+        registry.register(provider("acme", "acme v2"));
+        assertArrayEquals(bytes("acme v2"), registry.get("acme").synthesizeSpeech(request("acme")));
+    }
+
+    private static TTSRequest request(String provider) {
+        return TTSRequest.builder().text("hello " + System.nanoTime()).provider(provider).build();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static CloudTTSService failingProvider(String name) {
+        return new CloudTTSService() {
+            @Override
+            public byte[] synthesizeSpeech(TTSRequest request) {
+                throw new IllegalStateException(name + " is down");
+            }
+
+            @Override
+            public String getProviderName() {
+                return name;
+            }
+        };
+    }
+
+    private static CloudTTSService provider(String name, String audio) {
+        return new CloudTTSService() {
+            @Override
+            public byte[] synthesizeSpeech(TTSRequest request) {
+                return bytes(audio);
+            }
+
+            @Override
+            public String getProviderName() {
+                return name;
+            }
+        };
+    }
+}
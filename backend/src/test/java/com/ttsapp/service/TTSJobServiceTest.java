@@ -0,0 +1,158 @@
+package com.ttsapp.service;
+
+import com.ttsapp.config.ChunkingProperties;
+import com.ttsapp.config.ResilienceProperties;
+import com.ttsapp.dto.TTSJobRequest;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.model.TTSJob;
+import com.ttsapp.model.User;
+import com.ttsapp.repository.TTSJobRepository;
+import com.ttsapp.service.cache.AudioCache;
+import com.ttsapp.service.resilience.ProviderResilience;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TTSJobServiceTest {
+
+    private final TTSJobRepository jobRepository = mock(TTSJobRepository.class);
+    private final UsageService usageService = mock(UsageService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AtomicInteger providerCalls = new AtomicInteger();
+    private final AtomicLong providerCharacters = new AtomicLong();
+    private final AtomicLong billedCharacters = new AtomicLong();
+    private TTSJobService jobService;
+
+    @TempDir
+    private Path storageDir;
+
+    @AfterEach
+    public void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    public void testJobAssemblesChunksInOrder() throws Exception {
+        jobService = newJobService();
+        String text = "a".repeat(3999) + " " + "b".repeat(3999) + " " + "c".repeat(100);
+        TTSJob job = jobService.createJob(new User(), TTSJobRequest.builder().text(text).provider("test").build());
+
+        verify(jobRepository, timeout(5000)).finish(eq(job.getId()), eq(TTSJob.Status.COMPLETED), eq(3), isNull(),
+                any());
+        verify(usageService, timeout(5000))
+                .logUsageInTransaction(any(), eq("test"), eq((int) providerCharacters.get()));
+        assertEquals("abc", Files.readString(jobService.getAudioFile(job), StandardCharsets.UTF_8));
+        assertEquals(3, providerCalls.get());
+    }
+
+    @Test
+    public void testFailedJobBillsChunksSynthesizedBeforeFailure() throws Exception {
+        jobService = newJobService();
+        String text = "a".repeat(3999) + " " + "x".repeat(100);
+        TTSJob job = jobService.createJob(new User(), TTSJobRequest.builder().text(text).provider("test").build());
+
+        verify(jobRepository, timeout(5000)).finish(eq(job.getId()), eq(TTSJob.Status.FAILED), isNull(), any(),
+                any());
+        verify(usageService, timeout(5000)).logUsageInTransaction(any(), eq("test"), eq(3999));
+    }
+
+    @Test
+    public void testJobIsFinishedAndBilledInOneTransaction() throws Exception {
+        jobService = newJobService();
+        TTSJob job = jobService.createJob(new User(), TTSJobRequest.builder().text("hello").provider("test").build());
+
+        verify(transactionManager, timeout(5000)).commit(any());
+        InOrder inOrder = inOrder(transactionManager, jobRepository, usageService);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jobRepository).finish(eq(job.getId()), eq(TTSJob.Status.COMPLETED), eq(1), isNull(), any());
+        inOrder.verify(usageService).logUsageInTransaction(any(), eq("test"), eq(5));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testResumedJobOnlySynthesizesMissingChunks() throws Exception {
+        String text = "a".repeat(3999) + " " + "b".repeat(3999) + " " + "c".repeat(100);
+        TTSJob job = TTSJob.builder()
+                .id(UUID.randomUUID())
+                .user(new User())
+                .provider("test")
+                .text(text)
+                .status(TTSJob.Status.RUNNING)
+                .totalChunks(3)
+                .completedChunks(2)
+                .build();
+        Path partsDir = Files.createDirectories(storageDir.resolve(job.getId().toString()));
+        Files.writeString(partsDir.resolve("0.part"), "a");
+        Files.writeString(partsDir.resolve("1.part"), "b");
+        when(jobRepository.findClaimableIds(any(), eq("test-instance"), any())).thenReturn(List.of(job.getId()));
+        when(jobRepository.findWithUserById(job.getId())).thenReturn(Optional.of(job));
+
+        jobService = newJobService();
+        jobService.resumeUnfinishedJobs();
+
+        verify(jobRepository, timeout(5000)).finish(eq(job.getId()), eq(TTSJob.Status.COMPLETED), eq(3), isNull(),
+                any());
+        assertEquals("abc", Files.readString(jobService.getAudioFile(job), StandardCharsets.UTF_8));
+        assertEquals(1, providerCalls.get());
+        // Only the chunk synthesized in this run is billed; the earlier run's count was never persisted
+        verify(usageService, timeout(5000)).logUsageInTransaction(any(), eq("test"), eq(100));
+    }
+
+    private TTSJobService newJobService() throws Exception {
+        when(jobRepository.save(any())).thenAnswer(invocation -> {
+            TTSJob job = invocation.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+        when(jobRepository.claim(any(), any(), any(), any(), any())).thenReturn(1);
+        doAnswer(invocation -> billedCharacters.addAndGet(invocation.getArgument(1)))
+                .when(jobRepository).incrementCompletedChunks(any(), anyLong(), any());
+        when(jobRepository.findBilledCharacters(any())).thenAnswer(invocation -> billedCharacters.get());
+        AbstractCloudTTSService provider = new AbstractCloudTTSService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                providerCalls.incrementAndGet();
+                if (request.getText().startsWith("x")) {
+                    throw new IllegalStateException("provider rejected the chunk");
+                }
+                providerCharacters.addAndGet(request.getText().length());
+                return request.getText().substring(0, 1).getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String getProviderName() {
+                return "test";
+            }
+        };
+        AudioCache audioCache = new AudioCache(new SimpleMeterRegistry(), 1024 * 1024, "", 0);
+        ProviderRegistry registry = new ProviderRegistry(List.of(provider), audioCache,
+                new ProviderResilience(new ResilienceProperties(), new SimpleMeterRegistry()),
+                new ChunkingProperties());
+        return new TTSJobService(registry, jobRepository, usageService, transactionManager, storageDir.toString(), 2,
+                "test-instance", 60);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ttsapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextChunkerTest {
+
+    @Test
+    public void testShortTextIsOneTrimmedChunk() {
+        assertEquals(List.of("Hello world."), TextChunker.split("  Hello world.\n", 100));
+        assertEquals(List.of(), TextChunker.split(" \n ", 100));
+    }
+
+    @Test
+    public void testPrefersParagraphThenSentenceThenSpace() {
+        String paragraph = "First sentence. Second one\nThird sentence here. And more words";
+        assertEquals(List.of("First sentence. Second one", "Third sentence here.", "And more words"),
+                TextChunker.split(paragraph, 30));
+
+        String sentences = "One two three. Four five six seven";
+        assertEquals(List.of("One two three.", "Four five six seven"), TextChunker.split(sentences, 24));
+    }
+
+    @Test
+    public void testEarlySentenceEndDoesNotLeaveTinyChunk() {
+        // The period is in the first half of the window, a later space gives a fuller chunk
+        assertEquals(List.of("Hi. lorem ipsum dolor", "sit amet"), TextChunker.split("Hi. lorem ipsum dolor sit amet", 24));
+    }
+
+    @Test
+    public void testTextWithoutBreaksIsCutHard() {
+        List<String> chunks = TextChunker.split("a".repeat(25), 10);
+        assertEquals(List.of("a".repeat(10), "a".repeat(10), "a".repeat(5)), chunks);
+    }
+
+    @Test
+    public void testHardCutKeepsSurrogatePairsTogether() {
+        String text = "aaaa😀bbbb";
+        List<String> chunks = TextChunker.split(text, 5);
+        assertEquals("aaaa", chunks.get(0));
+        assertTrue(chunks.get(1).startsWith("😀"));
+        assertEquals(text, String.join("", chunks));
+    }
+
+    @Test
+    public void testChunksCoverTextWithinLimit() {
+        StringBuilder book = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            book.append("Sentence number ").append(i).append(i % 7 == 0 ? ".\n" : ". ");
+        }
+        String text = book.toString();
+
+        List<TextChunker.Range> ranges = TextChunker.ranges(text, 4000);
+        int previousEnd = 0;
+        for (TextChunker.Range range : ranges) {
+            assertTrue(range.length() <= 4000);
+            assertFalse(range.of(text).isBlank());
+            assertTrue(text.substring(previousEnd, range.start()).isBlank());
+            previousEnd = range.end();
+        }
+        assertEquals(text.strip().length(), previousEnd);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ttsapp.service;
+
+import com.ttsapp.dto.UsageHistoryPage;
+import com.ttsapp.dto.UsageRecord;
+import com.ttsapp.model.User;
+import com.ttsapp.repository.TTSUsageRepository;
+import com.ttsapp.repository.UsageDailyRollupRepository;
+import com.ttsapp.repository.UsageHistoryQuery;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UsageServiceTest {
+
+    private final TTSUsageRepository usageRepository = mock(TTSUsageRepository.class);
+    private final UsageService usageService = new UsageService(usageRepository,
+            mock(UsageDailyRollupRepository.class), mock(UsageWriter.class));
+    private final User user = User.builder().id(7L).build();
+
+    @Test
+    public void testFullPageReturnsCursorForNextPage() {
+        LocalDateTime lastCreatedAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+        when(usageRepository.findHistoryPage(any())).thenReturn(List.of(
+                new UsageRecord(12L, "amazon", 10, 0.00004, lastCreatedAt.plusMinutes(1)),
+                new UsageRecord(11L, "amazon", 10, 0.00004, lastCreatedAt)));
+
+        UsageHistoryPage first = usageService.getUsageHistory(user, null, null, "amazon", null, 2);
+        usageService.getUsageHistory(user, null, null, "amazon", first.getNextCursor(), 2);
+
+        ArgumentCaptor<UsageHistoryQuery> queries = ArgumentCaptor.forClass(UsageHistoryQuery.class);
+        verify(usageRepository, times(2)).findHistoryPage(queries.capture());
+        UsageHistoryQuery firstQuery = queries.getAllValues().get(0);
+        assertEquals(7L, firstQuery.getUserId());
+        assertNull(firstQuery.getAfterCreatedAt());
+
+        UsageHistoryQuery secondQuery = queries.getAllValues().get(1);
+        assertEquals(lastCreatedAt, secondQuery.getAfterCreatedAt());
+        assertEquals(11L, secondQuery.getAfterId());
+        assertEquals("amazon", secondQuery.getProvider());
+    }
+
+    @Test
+    public void testShortPageIsLast() {
+        when(usageRepository.findHistoryPage(any())).thenReturn(List.of(
+                new UsageRecord(1L, "google", 5, 0.00002, LocalDateTime.now())));
+
+        UsageHistoryPage page = usageService.getUsageHistory(user, null, null, null, null, 50);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testPageSizeIsCapped() {
+        when(usageRepository.findHistoryPage(any())).thenReturn(List.of());
+
+        usageService.getUsageHistory(user, null, null, null, null, 10_000);
+
+        ArgumentCaptor<UsageHistoryQuery> query = ArgumentCaptor.forClass(UsageHistoryQuery.class);
+        verify(usageRepository).findHistoryPage(query.capture());
+        assertEquals(200, query.getValue().getLimit());
+    }
+
+    @Test
+    public void testMalformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> usageService.getUsageHistory(user, null, null, null, "not-a-cursor", 50));
+    }
+}
@@ -0,0 +1,162 @@
+package com.ttsapp.service;
+
+import com.ttsapp.model.TTSUsage;
+import com.ttsapp.model.User;
+import com.ttsapp.repository.TTSUsageRepository;
+import com.ttsapp.repository.UsageDailyRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UsageWriterTest {
+
+    private final TTSUsageRepository usageRepository = mock(TTSUsageRepository.class);
+    private final UsageDailyRollupRepository rollupRepository = mock(UsageDailyRollupRepository.class);
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void testUsageIsWrittenInBatches() throws Exception {
+        recordBatchSizes();
+        UsageWriter writer = newWriter(60_000);
+
+        for (int i = 0; i < 120; i++) {
+            writer.enqueue(usage());
+        }
+
+        verify(usageRepository, timeout(5000).times(2)).saveAll(anyList());
+        writer.shutdown();
+
+        assertEquals(List.of(50, 50, 20), batchSizes);
+    }
+
+    @Test
+    public void testPartialBatchIsFlushedAfterInterval() throws Exception {
+        recordBatchSizes();
+        UsageWriter writer = newWriter(50);
+
+        writer.enqueue(usage());
+
+        verify(usageRepository, timeout(5000)).saveAll(anyList());
+        writer.shutdown();
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    public void testShutdownDrainsQueue() throws Exception {
+        recordBatchSizes();
+        UsageWriter writer = newWriter(60_000);
+        writer.enqueue(usage());
+        writer.shutdown();
+
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    public void testShutdownLetsTheBatchBeingWrittenFinish() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        when(usageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            // Stands in for a JDBC call, which an interrupt would abort
+            Thread.sleep(200);
+            return recordBatchSize(invocation);
+        });
+        UsageWriter writer = newWriter(1);
+        writer.enqueue(usage());
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        writer.shutdown();
+
+        // Written by the first attempt, not aborted and retried
+        verify(usageRepository).saveAll(anyList());
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+        when(usageRepository.saveAll(anyList()))
+                .thenThrow(new RuntimeException("Connection reset"))
+                .thenAnswer(this::recordBatchSize);
+        UsageWriter writer = newWriter(60_000);
+        writer.enqueue(usage());
+        writer.enqueue(usage());
+        writer.shutdown();
+
+        assertEquals(List.of(2), batchSizes);
+        assertEquals(0, meterRegistry.get("tts.usage.records.dropped").counter().count());
+    }
+
+    @Test
+    public void testRecordIsDroppedOnlyAfterRetriesAndCounted() throws Exception {
+        when(usageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TTSUsage> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(usage -> usage.getCharacterCount() < 0)) {
+                throw new RuntimeException("Check constraint violated");
+            }
+            return recordBatchSize(invocation);
+        });
+        UsageWriter writer = newWriter(60_000);
+        TTSUsage invalid = usage();
+        invalid.setCharacterCount(-1);
+        writer.enqueue(usage());
+        writer.enqueue(invalid);
+        writer.enqueue(usage());
+        writer.shutdown();
+
+        assertEquals(List.of(1, 1), batchSizes);
+        assertEquals(1, meterRegistry.get("tts.usage.records.dropped").counter().count());
+    }
+
+    private void recordBatchSizes() {
+        when(usageRepository.saveAll(anyList())).thenAnswer(this::recordBatchSize);
+    }
+
+    private List<TTSUsage> recordBatchSize(InvocationOnMock invocation) {
+        List<TTSUsage> batch = invocation.getArgument(0);
+        synchronized (batchSizes) {
+            batchSizes.add(batch.size());
+        }
+        return batch;
+    }
+
+    private UsageWriter newWriter(long flushIntervalMs) {
+        return new UsageWriter(usageRepository, rollupRepository, mock(PlatformTransactionManager.class),
+                mock(JdbcTemplate.class), meterRegistry, 1000, 50, flushIntervalMs, 3, 1);
+    }
+
+    @Test
+    public void testBatchIsRolledUpPerUserProviderAndDay() throws Exception {
+        UsageWriter writer = newWriter(60_000);
+        writer.enqueue(usage());
+        writer.enqueue(usage());
+        writer.shutdown();
+
+        verify(rollupRepository).addUsage(1L, "amazon", LocalDate.of(2024, 5, 1), 2L, 20L, 0.00008);
+    }
+
+    private static TTSUsage usage() {
+        return TTSUsage.builder()
+                .user(User.builder().id(1L).build())
+                .provider("amazon")
+                .characterCount(10)
+                .estimatedCost(0.00004)
+                .createdAt(LocalDateTime.of(2024, 5, 1, 12, 0))
+                .build();
+    }
+}
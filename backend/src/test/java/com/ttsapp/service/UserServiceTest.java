@@ -0,0 +1,80 @@
+package com.ttsapp.service;
+
+import com.ttsapp.model.User;
+import com.ttsapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserService userService = new UserService(userRepository, new SimpleMeterRegistry(), 100, 30);
+
+    @Test
+    public void testUserIdIsQueriedOnlyOnFirstLookup() {
+        when(userRepository.findIdByFirebaseUid("uid-1")).thenReturn(Optional.of(42L));
+
+        assertEquals(Optional.of(42L), userService.getUserIdByFirebaseUid("uid-1"));
+        assertEquals(Optional.of(42L), userService.getUserIdByFirebaseUid("uid-1"));
+
+        verify(userRepository, times(1)).findIdByFirebaseUid("uid-1");
+    }
+
+    @Test
+    public void testSyncUserWarmsCache() {
+        when(userRepository.findByFirebaseUid("uid-1")).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(42L);
+            return user;
+        });
+
+        userService.syncUser("uid-1", "a@example.com", "A", null);
+
+        assertEquals(Optional.of(42L), userService.getUserIdByFirebaseUid("uid-1"));
+        verify(userRepository, never()).findIdByFirebaseUid(anyString());
+    }
+
+    @Test
+    public void testDeleteUserEvictsCachedId() {
+        when(userRepository.findIdByFirebaseUid("uid-1")).thenReturn(Optional.of(42L)).thenReturn(Optional.empty());
+        when(userRepository.findByFirebaseUid("uid-1")).thenReturn(Optional.empty());
+
+        userService.getUserIdByFirebaseUid("uid-1");
+        userService.deleteUser("uid-1");
+
+        assertEquals(Optional.empty(), userService.getUserIdByFirebaseUid("uid-1"));
+    }
+
+    @Test
+    public void testDeleteUserEvictsCachedIdOnlyAfterCommit() {
+        when(userRepository.findIdByFirebaseUid("uid-1")).thenReturn(Optional.of(42L)).thenReturn(Optional.empty());
+        when(userRepository.findByFirebaseUid("uid-1")).thenReturn(Optional.empty());
+        userService.getUserIdByFirebaseUid("uid-1");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUser("uid-1");
+            // A lookup racing the delete must not cache the id again before the row is gone
+            userService.getUserIdByFirebaseUid("uid-1");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Optional.empty(), userService.getUserIdByFirebaseUid("uid-1"));
+    }
+}
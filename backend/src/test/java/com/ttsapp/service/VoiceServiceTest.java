@@ -27,4 +27,44 @@ public class VoiceServiceTest {
         List<String> languages = voiceService.getLanguages();
         assertTrue(languages.contains("en-US"));
     }
+
+    @Test
+    public void testGetPricingTier() {
+        assertEquals(PricingTier.STANDARD, voiceService.getPricingTier("amazon", "Joanna", "medium"));
+        assertEquals(PricingTier.PREMIUM, voiceService.getPricingTier("amazon", "Joanna", "high"));
+        assertEquals(PricingTier.PREMIUM, voiceService.getPricingTier("google", "en-US-Wavenet-A", "low"));
+        assertEquals(PricingTier.STANDARD, voiceService.getPricingTier("google", "unknown-voice", null));
+        assertEquals(4, PricingTier.PREMIUM.getWeight());
+    }
+
+    @Test
+    public void testFindEquivalentVoices() {
+        List<VoiceDTO> equivalents = voiceService.findEquivalentVoices("amazon", "Joanna");
+        assertFalse(equivalents.isEmpty());
+        equivalents.forEach(v -> {
+            assertNotEquals("amazon", v.getProvider());
+            assertEquals("FEMALE", v.getGender());
+            assertEquals("en-US", v.getLanguageCode());
+        });
+        assertTrue(voiceService.findEquivalentVoices("amazon", "unknown").isEmpty());
+    }
+
+    @Test
+    public void testRefreshSwapsCatalogSnapshot() {
+        VoiceCatalog before = voiceService.getCatalog();
+        String allVoicesEtag = before.getVoicesJson().etag();
+        assertEquals(allVoicesEtag, new VoiceService().getCatalog().getVoicesJson().etag());
+        assertSame(before.getVoicesJson("google"), voiceService.getCatalog().getVoicesJson("GOOGLE"));
+
+        voiceService.refresh(List.of(
+                new VoiceDTO("Lea", "Lea", "fr-FR", "FEMALE", "amazon", List.of("neural"), null)));
+
+        assertEquals(List.of("fr-FR"), voiceService.getLanguages());
+        assertTrue(voiceService.getVoicesByProvider("google").isEmpty());
+        assertEquals("[]", new String(voiceService.getCatalog().getVoicesJson("google").body()));
+        assertNotEquals(allVoicesEtag, voiceService.getCatalog().getVoicesJson().etag());
+        // Readers still holding the previous snapshot keep a consistent view
+        assertTrue(before.getLanguages().contains("en-US"));
+        assertEquals(allVoicesEtag, before.getVoicesJson().etag());
+    }
 }
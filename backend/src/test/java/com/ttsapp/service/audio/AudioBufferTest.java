@@ -0,0 +1,42 @@
+package com.ttsapp.service.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AudioBufferTest {
+
+    private final AudioBuffer audio = AudioBuffer.ofChunks(List.of("ab".getBytes(), "".getBytes(), "cde".getBytes()));
+
+    @Test
+    public void testToByteArrayConcatenatesChunks() {
+        assertEquals(5, audio.size());
+        assertArrayEquals("abcde".getBytes(), audio.toByteArray());
+    }
+
+    @Test
+    public void testGatheringWriteToFileChannel(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("speech.mp3");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            audio.writeTo(channel);
+        }
+        assertArrayEquals("abcde".getBytes(), Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testWriteToOutputStreamCanBeRepeated() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        audio.writeTo(out);
+        audio.writeTo(out);
+        assertArrayEquals("abcdeabcde".getBytes(), out.toByteArray());
+    }
+}
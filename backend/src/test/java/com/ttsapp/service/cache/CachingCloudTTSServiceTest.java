@@ -0,0 +1,109 @@
+package com.ttsapp.service.cache;
+
+import com.ttsapp.dto.SynthesisResult;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.CloudTTSService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachingCloudTTSServiceTest {
+
+    private final AtomicInteger providerCalls = new AtomicInteger();
+
+    private final CloudTTSService provider = new CloudTTSService() {
+        @Override
+        public byte[] synthesizeSpeech(TTSRequest request) {
+            providerCalls.incrementAndGet();
+            return request.getText().getBytes();
+        }
+
+        @Override
+        public String getProviderName() {
+            return "amazon";
+        }
+    };
+
+    @Test
+    public void testRepeatedRequestIsServedFromCache() {
+        CachingCloudTTSService service = new CachingCloudTTSService(provider,
+                new AudioCache(new SimpleMeterRegistry(), 1024 * 1024, "", 0));
+
+        SynthesisResult first = service.synthesize(request("Hello world", "Joanna"));
+        SynthesisResult second = service.synthesize(request("  Hello world ", "Joanna"));
+
+        assertFalse(first.isCached());
+        assertTrue(second.isCached());
+        assertArrayEquals(first.getAudio().toByteArray(), second.getAudio().toByteArray());
+        assertEquals(1, providerCalls.get());
+    }
+
+    @Test
+    public void testDiskTierSurvivesNewMemoryTier(@TempDir Path cacheDir) {
+        String dir = cacheDir.toString();
+        AudioCache previous = new AudioCache(new SimpleMeterRegistry(), 1024, dir, 1024);
+        new CachingCloudTTSService(provider, previous).synthesize(request("Hello world", "Joanna"));
+        // Waits for the background disk write
+        previous.close();
+
+        SynthesisResult result = new CachingCloudTTSService(provider,
+                new AudioCache(new SimpleMeterRegistry(), 1024, dir, 1024))
+                .synthesize(request("Hello world", "Joanna"));
+
+        assertTrue(result.isCached());
+        assertEquals(1, providerCalls.get());
+    }
+
+    @Test
+    public void testVoiceParametersArePartOfTheKey() {
+        assertNotEquals(AudioCache.keyFor(request("Hello world", "Joanna")),
+                AudioCache.keyFor(request("Hello world", "Matthew")));
+    }
+
+    @Test
+    public void testFailedDiskWriteLeavesNoTemporaryFile(@TempDir Path cacheDir) throws IOException {
+        DiskCache disk = new DiskCache(cacheDir, 1024, ".audio");
+        // A directory where the entry should go makes the final move fail after the temporary file is written
+        Files.createDirectory(cacheDir.resolve("entry.audio"));
+        Files.writeString(cacheDir.resolve("entry.audio").resolve("occupied"), "x");
+
+        disk.put("entry", new byte[] {1, 2, 3});
+
+        assertNull(disk.get("entry"));
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(List.of("entry.audio"), files.map(p -> p.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    public void testTemporaryFilesLeftByACrashAreDeletedOnStart(@TempDir Path cacheDir) throws IOException {
+        Files.write(cacheDir.resolve("entry.audio"), new byte[] {1, 2, 3});
+        Files.write(cacheDir.resolve("other123456789.tmp"), new byte[] {4, 5});
+
+        DiskCache disk = new DiskCache(cacheDir, 1024, ".audio");
+
+        assertArrayEquals(new byte[] {1, 2, 3}, disk.get("entry"));
+        assertEquals(3, disk.getTotalBytes());
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(List.of("entry.audio"), files.map(p -> p.getFileName().toString()).toList());
+        }
+    }
+
+    private static TTSRequest request(String text, String voiceId) {
+        return TTSRequest.builder().text(text).provider("amazon").voiceId(voiceId).build();
+    }
+}
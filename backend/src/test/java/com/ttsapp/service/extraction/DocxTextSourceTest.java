@@ -0,0 +1,135 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DocxTextSourceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testReadsParagraphsRunsAndTabs() throws IOException {
+        Path docx = writeDocx(document -> {
+            XWPFRun run = document.createParagraph().createRun();
+            run.setText("Hello ");
+            run.addTab();
+            run.setText("world");
+            document.createParagraph().createRun().setText("Second paragraph");
+        });
+
+        List<ExtractedPart> parts = readAll(docx, 1000);
+
+        assertEquals(1, parts.size());
+        assertEquals("Hello \tworld\nSecond paragraph\n", parts.get(0).getText());
+    }
+
+    @Test
+    public void testLargeDocumentsAreSplitBetweenParagraphs() throws IOException {
+        Path docx = writeDocx(document -> {
+            for (int i = 0; i < 10; i++) {
+                document.createParagraph().createRun().setText("Paragraph " + i + " " + "x".repeat(40));
+            }
+        });
+
+        List<ExtractedPart> parts = readAll(docx, 100);
+
+        assertTrue(parts.size() > 1);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < parts.size(); i++) {
+            assertEquals(i + 1, parts.get(i).getIndex());
+            assertTrue(parts.get(i).getText().endsWith("\n"));
+            text.append(parts.get(i).getText());
+        }
+        assertTrue(text.toString().startsWith("Paragraph 0 "));
+        assertEquals(10, text.toString().lines().count());
+    }
+
+    @Test
+    public void testLongParagraphIsSplitAtSpaces() throws IOException {
+        Path docx = writeDocumentXml("<w:p><w:r><w:t>" + "word ".repeat(2000) + "</w:t></w:r></w:p>");
+
+        List<ExtractedPart> parts = readAll(docx, 100);
+
+        assertTrue(parts.size() > 40);
+        StringBuilder text = new StringBuilder();
+        for (ExtractedPart part : parts) {
+            assertTrue(part.getText().length() <= 200, "part of " + part.getText().length());
+            text.append(part.getText());
+        }
+        assertEquals("word ".repeat(2000) + "\n", text.toString());
+        for (ExtractedPart part : parts.subList(0, parts.size() - 1)) {
+            assertTrue(part.getText().endsWith(" "));
+        }
+    }
+
+    @Test
+    public void testHighlyCompressedDocumentIsRefused() throws IOException {
+        Path docx = writeDocumentXml("<w:p><w:r><w:t>" + "a".repeat(16 * 1024 * 1024) + "</w:t></w:r></w:p>");
+
+        assertThrows(DocumentTooLargeException.class, () -> readAll(docx, 16384));
+    }
+
+    @Test
+    public void testRejectsZipWithoutDocumentXml() throws IOException {
+        Path notDocx = dir.resolve("empty.docx");
+        try (OutputStream out = Files.newOutputStream(notDocx);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("other.xml"));
+            zip.closeEntry();
+        }
+        assertThrows(IllegalArgumentException.class, () -> DocxTextSource.open(notDocx, 100));
+    }
+
+    private List<ExtractedPart> readAll(Path docx, int partChars) throws IOException {
+        List<ExtractedPart> parts = new ArrayList<>();
+        try (TextSource source = DocxTextSource.open(docx, partChars)) {
+            for (ExtractedPart part = source.next(); part != null; part = source.next()) {
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+
+    private Path writeDocumentXml(String body) throws IOException {
+        Path file = dir.resolve("handmade.docx");
+        try (OutputStream out = Files.newOutputStream(file);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(("<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+                    + "<w:body>" + body + "</w:body></w:document>").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return file;
+    }
+
+    private Path writeDocx(DocumentWriter writer) throws IOException {
+        Path file = dir.resolve("document.docx");
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(file)) {
+            writer.write(document);
+            document.write(out);
+        }
+        return file;
+    }
+
+    private interface DocumentWriter {
+        void write(XWPFDocument document);
+    }
+}
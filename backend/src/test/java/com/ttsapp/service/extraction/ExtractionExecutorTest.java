@@ -0,0 +1,119 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExtractionExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExtractionExecutor executor = new ExtractionExecutor(meterRegistry, 1, 1, 7, 200);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testWorkBeyondTheQueueIsRefused() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> call(() -> {
+            started.countDown();
+            release.await();
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> call(() -> "second"));
+        while (meterRegistry.get("tts.extraction.queue.size").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        ExtractionBusyException busy = assertThrows(ExtractionBusyException.class,
+                () -> executor.execute(DocumentFormat.PDF, () -> "third"));
+        assertEquals(7, busy.getRetryAfterSeconds());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, meterRegistry.get("tts.extraction.duration").tag("format", "pdf").timer().count());
+    }
+
+    @Test
+    public void testStreamedPartsArriveInOrderAndErrorsReachTheReader() throws IOException {
+        List<String> texts = new ArrayList<>();
+        try (TextSource source = executor.stream(DocumentFormat.TXT, () -> new CountingSource(10, false))) {
+            for (ExtractedPart part = source.next(); part != null; part = source.next()) {
+                texts.add(part.getText());
+            }
+        }
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "10"), texts);
+
+        try (TextSource source = executor.stream(DocumentFormat.TXT, () -> new CountingSource(2, true))) {
+            assertEquals("1", source.next().getText());
+            assertEquals("2", source.next().getText());
+            assertThrows(IOException.class, source::next);
+        }
+    }
+
+    @Test
+    public void testStalledReaderReleasesTheExtractionThread() throws Exception {
+        try (TextSource stalled = executor.stream(DocumentFormat.TXT, () -> new CountingSource(100, false))) {
+            // Waits for the stall timeout to stop the producer, then the single thread takes new work
+            assertEquals("next", executor.execute(DocumentFormat.PDF, () -> "next"));
+            for (int i = 1; i <= 4; i++) {
+                assertEquals(String.valueOf(i), stalled.next().getText());
+            }
+            assertThrows(IOException.class, stalled::next);
+        }
+    }
+
+    private String call(Callable<String> task) {
+        try {
+            return executor.execute(DocumentFormat.PDF, task);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CountingSource implements TextSource {
+
+        private final int parts;
+        private final boolean failAtEnd;
+        private int index;
+
+        CountingSource(int parts, boolean failAtEnd) {
+            this.parts = parts;
+            this.failAtEnd = failAtEnd;
+        }
+
+        @Override
+        public ExtractedPart next() throws IOException {
+            if (index == parts) {
+                if (failAtEnd) {
+                    throw new IOException("Truncated file");
+                }
+                return null;
+            }
+            index++;
+            return new ExtractedPart(index, null, String.valueOf(index));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
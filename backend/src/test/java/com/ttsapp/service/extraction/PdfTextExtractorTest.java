@@ -0,0 +1,94 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PdfTextExtractorTest {
+
+    @TempDir
+    Path dir;
+
+    private final PdfTextExtractor extractor = new PdfTextExtractor(1024 * 1024);
+
+    @Test
+    public void testExtractsRequestedPagesInOrder() throws IOException {
+        Path pdf = writePdf("Page one", "Page two", "Page three");
+        List<String> pages = new ArrayList<>();
+
+        for (ExtractedPart part : read(extractor.pages(pdf, 2, 3))) {
+            pages.add(part.getPage() + ":" + part.getText().strip());
+        }
+
+        assertEquals(3, extractor.countPages(pdf));
+        assertEquals(List.of("2:Page two", "3:Page three"), pages);
+    }
+
+    @Test
+    public void testLastPageIsClampedToDocument() throws IOException {
+        Path pdf = writePdf("Only page");
+
+        List<ExtractedPart> parts = read(extractor.pages(pdf, 1, Integer.MAX_VALUE));
+
+        assertEquals(List.of(1), parts.stream().map(ExtractedPart::getPage).toList());
+    }
+
+    @Test
+    public void testParallelExtractionKeepsPageOrder() throws IOException {
+        String[] pageTexts = new String[40];
+        for (int i = 0; i < pageTexts.length; i++) {
+            pageTexts[i] = "Page number " + (i + 1);
+        }
+        Path pdf = writePdf(pageTexts);
+        StringBuilder sequential = new StringBuilder();
+        read(extractor.pages(pdf, 1, Integer.MAX_VALUE)).forEach(part -> sequential.append(part.getText()));
+
+        PdfTextExtractor parallel = new PdfTextExtractor(1024 * 1024, 4, 3);
+        try {
+            assertEquals(sequential.toString(), parallel.extractText(pdf));
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    private static List<ExtractedPart> read(TextSource pages) throws IOException {
+        List<ExtractedPart> parts = new ArrayList<>();
+        try (TextSource source = pages) {
+            for (ExtractedPart part = source.next(); part != null; part = source.next()) {
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+
+    private Path writePdf(String... pageTexts) throws IOException {
+        Path file = dir.resolve("document.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (String pageText : pageTexts) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText(pageText);
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ttsapp.service.extraction;
+
+import com.ttsapp.dto.ExtractedPart;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlainTextSourceTest {
+
+    @Test
+    public void testDecodesUtf8() throws IOException {
+        assertEquals("Grüße, naïve café", String.join("", read(encode("Grüße, naïve café", StandardCharsets.UTF_8), 100)));
+    }
+
+    @Test
+    public void testHonoursByteOrderMark() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(new byte[] {(byte) 0xFF, (byte) 0xFE});
+        bytes.write(encode("Hello", StandardCharsets.UTF_16LE));
+        assertEquals(List.of("Hello"), read(bytes.toByteArray(), 100));
+    }
+
+    @Test
+    public void testFallsBackToWindows1252() throws IOException {
+        byte[] latin = encode("Déjà vu – “quoted”", PlainTextSource.WINDOWS_1252);
+        assertEquals("Déjà vu – “quoted”", String.join("", read(latin, 100)));
+    }
+
+    @Test
+    public void testPartsEndAtLineBreaks() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append("Line number ").append(i).append('\n');
+        }
+
+        List<String> parts = read(encode(text.toString(), StandardCharsets.UTF_8), 64);
+
+        assertTrue(parts.size() > 1);
+        parts.forEach(part -> assertTrue(part.endsWith("\n"), part));
+        assertEquals(text.toString(), String.join("", parts));
+    }
+
+    private static List<String> read(byte[] bytes, int partChars) throws IOException {
+        List<String> parts = new ArrayList<>();
+        try (TextSource source = new PlainTextSource(new ByteArrayInputStream(bytes), partChars)) {
+            for (ExtractedPart part = source.next(); part != null; part = source.next()) {
+                parts.add(part.getText());
+            }
+        }
+        return parts;
+    }
+
+    private static byte[] encode(String text, Charset charset) {
+        return text.getBytes(charset);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ttsapp.service.ratelimit;
+
+import com.ttsapp.config.RateLimitProperties;
+import io.github.bucket4j.Bucket;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final BucketStore bucketStore = new LocalBucketStore(Duration.ofMinutes(10), 1000);
+    private final RateLimiter rateLimiter = new RateLimiter(bucketStore, properties);
+
+    @Test
+    public void testLongestPrefixWins() {
+        properties.getEndpoints().put("/api/tts", new RateLimitProperties.Limit(100, Duration.ofMinutes(1)));
+        properties.getEndpoints().put("/api/tts/synthesize", new RateLimitProperties.Limit(2, Duration.ofMinutes(1)));
+
+        assertEquals("/api/tts/synthesize", rateLimiter.matchEndpoint("/api/tts/synthesize/stream"));
+        assertEquals("/api/tts", rateLimiter.matchEndpoint("/api/tts/jobs"));
+        assertNull(rateLimiter.matchEndpoint("/api/usage/summary"));
+    }
+
+    @Test
+    public void testEndpointLimitIsPerUser() {
+        properties.getEndpoints().put("/api/tts/synthesize", new RateLimitProperties.Limit(2, Duration.ofMinutes(1)));
+
+        assertTrue(rateLimiter.tryConsumeEndpoint("uid-1", "/api/tts/synthesize"));
+        assertTrue(rateLimiter.tryConsumeEndpoint("uid-1", "/api/tts/synthesize"));
+        assertFalse(rateLimiter.tryConsumeEndpoint("uid-1", "/api/tts/synthesize"));
+        assertTrue(rateLimiter.tryConsumeEndpoint("uid-2", "/api/tts/synthesize"));
+    }
+
+    @Test
+    public void testProviderLimitIgnoresCase() {
+        properties.getProviders().put("google", new RateLimitProperties.Limit(1, Duration.ofMinutes(1)));
+
+        assertTrue(rateLimiter.tryConsumeProvider("uid-1", "GOOGLE"));
+        assertFalse(rateLimiter.tryConsumeProvider("uid-1", "google"));
+        assertTrue(rateLimiter.tryConsumeProvider("uid-1", "amazon"));
+    }
+
+    @Test
+    public void testCharacterBudgetIsConsumedByWeight() {
+        properties.setCharacters(new RateLimitProperties.Limit(10_000, Duration.ofDays(1)));
+
+        assertTrue(rateLimiter.tryConsumeCharacters("uid-1", 5000));
+        assertTrue(rateLimiter.tryConsumeCharacters("uid-1", 4000));
+        assertFalse(rateLimiter.tryConsumeCharacters("uid-1", 2000));
+        assertTrue(rateLimiter.tryConsumeCharacters("uid-1", 1000));
+    }
+
+    @Test
+    public void testRequestLargerThanBudgetPassesOnFullBucket() {
+        // Refills slowly enough that not even one token comes back while the test runs
+        properties.setCharacters(new RateLimitProperties.Limit(10_000, Duration.ofDays(1)));
+
+        assertTrue(rateLimiter.tryConsumeCharacters("uid-1", 20_000));
+        assertFalse(rateLimiter.tryConsumeCharacters("uid-1", 1));
+
+        assertTrue(rateLimiter.tryConsumeCharacters("uid-2", 1));
+        assertFalse(rateLimiter.tryConsumeCharacters("uid-2", 20_000));
+    }
+
+    @Test
+    public void testOverflowIsChargedAgainstTheRefill() {
+        properties.setCharacters(new RateLimitProperties.Limit(10_000, Duration.ofDays(1)));
+        assertTrue(rateLimiter.tryConsumeCharacters("uid-1", 25_000));
+
+        Bucket bucket = bucketStore.getBucket("characters:uid-1", () -> null);
+        assertEquals(-15_000, bucket.getAvailableTokens());
+    }
+
+    @Test
+    public void testRefundedProviderTokenCanBeUsedAgain() {
+        properties.getProviders().put("google", new RateLimitProperties.Limit(1, Duration.ofDays(1)));
+
+        assertTrue(rateLimiter.tryConsumeProvider("uid-1", "google"));
+        rateLimiter.refundProvider("uid-1", "GOOGLE");
+        assertTrue(rateLimiter.tryConsumeProvider("uid-1", "google"));
+    }
+}
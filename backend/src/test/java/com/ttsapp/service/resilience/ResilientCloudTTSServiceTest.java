@@ -0,0 +1,223 @@
+package com.ttsapp.service.resilience;
+
+import com.ttsapp.config.ResilienceProperties;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.AbstractCloudTTSService;
+import com.ttsapp.service.CloudTTSService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResilientCloudTTSServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ResilienceProperties properties = new ResilienceProperties();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+    private ProviderResilience resilience;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        resilience.shutdown();
+    }
+
+    @Test
+    public void testStalledProviderDoesNotAffectOthers() throws Exception {
+        ResilienceProperties.Settings stalledSettings = new ResilienceProperties.Settings();
+        stalledSettings.setMaxConcurrentCalls(2);
+        stalledSettings.setQueueCapacity(1);
+        properties.getProviders().put("stalled", stalledSettings);
+        resilience = new ProviderResilience(properties, registry);
+
+        CloudTTSService stalled = resilience.decorate(new StubProvider("stalled", true));
+        CloudTTSService healthy = resilience.decorate(new StubProvider("healthy", false));
+
+        // Two calls occupy the stalled provider's threads and a third its queue
+        List<CompletableFuture<byte[]>> pending = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            pending.add(CompletableFuture.supplyAsync(() -> stalled.synthesizeSpeech(request("stalled"))));
+        }
+        Thread.sleep(200);
+
+        ProviderUnavailableException rejected = assertThrows(ProviderUnavailableException.class,
+                () -> stalled.synthesizeSpeech(request("stalled")));
+        assertEquals("stalled", rejected.getProvider());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (int i = 0; i < 20; i++) {
+                assertArrayEquals("healthy".getBytes(StandardCharsets.UTF_8),
+                        healthy.synthesizeSpeech(request("healthy")));
+            }
+        });
+
+        assertEquals(1.0, registry.get("tts.provider.rejections")
+                .tags("provider", "stalled", "reason", "bulkhead_full").counter().count());
+        assertEquals(20, registry.get("tts.provider.latency")
+                .tags("provider", "healthy", "outcome", "success").timer().count());
+
+        release.countDown();
+        for (CompletableFuture<byte[]> call : pending) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testStalledCallIsAbandonedAtDeadline() throws Exception {
+        ResilienceProperties.Settings settings = new ResilienceProperties.Settings();
+        settings.setTimeout(Duration.ofMillis(200));
+        properties.getProviders().put("stalled", settings);
+        resilience = new ProviderResilience(properties, registry);
+
+        CloudTTSService stalled = resilience.decorate(new StubProvider("stalled", true));
+
+        assertThrows(ProviderUnavailableException.class, () -> stalled.synthesizeSpeech(request("stalled")));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "stalled call should be interrupted");
+        assertEquals(1.0, registry.get("tts.provider.rejections")
+                .tags("provider", "stalled", "reason", "timeout").counter().count());
+    }
+
+    @Test
+    public void testCircuitOpensAfterRepeatedFailures() {
+        ResilienceProperties.Settings settings = new ResilienceProperties.Settings();
+        settings.setSlidingWindowSize(4);
+        properties.getProviders().put("failing", settings);
+        resilience = new ProviderResilience(properties, registry);
+
+        CloudTTSService failing = resilience.decorate(new CloudTTSService() {
+            @Override
+            public byte[] synthesizeSpeech(TTSRequest request) {
+                throw new IllegalStateException("provider error");
+            }
+
+            @Override
+            public String getProviderName() {
+                return "failing";
+            }
+        });
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> failing.synthesizeSpeech(request("failing")));
+        }
+        ProviderUnavailableException rejected = assertThrows(ProviderUnavailableException.class,
+                () -> failing.synthesizeSpeech(request("failing")));
+        assertEquals("circuit open", rejected.getReason());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpenTheCircuit() {
+        ResilienceProperties.Settings settings = new ResilienceProperties.Settings();
+        settings.setSlidingWindowSize(4);
+        properties.getProviders().put("strict", settings);
+        resilience = new ProviderResilience(properties, registry);
+
+        CloudTTSService strict = resilience.decorate(new CloudTTSService() {
+            @Override
+            public byte[] synthesizeSpeech(TTSRequest request) {
+                throw new IllegalArgumentException("unsupported voice");
+            }
+
+            @Override
+            public String getProviderName() {
+                return "strict";
+            }
+        });
+
+        for (int i = 0; i < 8; i++) {
+            assertThrows(IllegalArgumentException.class, () -> strict.synthesizeSpeech(request("strict")));
+        }
+    }
+
+    @Test
+    public void testEachChunkGetsItsOwnDeadline() {
+        ResilienceProperties.Settings settings = new ResilienceProperties.Settings();
+        settings.setTimeout(Duration.ofMillis(500));
+        properties.getProviders().put("chunked", settings);
+        resilience = new ProviderResilience(properties, registry);
+
+        AbstractCloudTTSService provider = new AbstractCloudTTSService() {
+            @Override
+            protected byte[] synthesizeChunk(TTSRequest request) {
+                sleep(200);
+                return request.getText().substring(0, 1).getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            protected int getMaxConcurrentChunks() {
+                return 1;
+            }
+
+            @Override
+            public String getProviderName() {
+                return "chunked";
+            }
+        };
+        CloudTTSService chunked = resilience.decorate(provider);
+
+        // Four chunks in a row take longer than the deadline, each one alone does not
+        String text = "a".repeat(3999) + " " + "b".repeat(3999) + " " + "c".repeat(3999) + " " + "d".repeat(10);
+        try {
+            assertArrayEquals("abcd".getBytes(StandardCharsets.UTF_8),
+                    chunked.synthesizeSpeech(TTSRequest.builder().text(text).provider("chunked").build()));
+            assertEquals(4, registry.get("tts.provider.latency")
+                    .tags("provider", "chunked", "outcome", "success").timer().count());
+        } finally {
+            provider.shutdownChunkExecutor();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static TTSRequest request(String provider) {
+        return TTSRequest.builder().text("hello").provider(provider).build();
+    }
+
+    private class StubProvider implements CloudTTSService {
+        private final String name;
+        private final boolean stall;
+
+        StubProvider(String name, boolean stall) {
+            this.name = name;
+            this.stall = stall;
+        }
+
+        @Override
+        public byte[] synthesizeSpeech(TTSRequest request) {
+            if (stall) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            return name.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String getProviderName() {
+            return name;
+        }
+    }
+}
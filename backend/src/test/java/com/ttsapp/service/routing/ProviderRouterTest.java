@@ -0,0 +1,155 @@
+package com.ttsapp.service.routing;
+
+import com.ttsapp.config.RoutingProperties;
+import com.ttsapp.dto.SynthesisResult;
+import com.ttsapp.dto.TTSRequest;
+import com.ttsapp.service.CloudTTSService;
+import com.ttsapp.service.VoiceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProviderRouterTest {
+
+    private final RoutingProperties properties = new RoutingProperties();
+    private final Map<String, String> voicesRequested = new ConcurrentHashMap<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+    private ProviderRouter router;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        router.shutdown();
+    }
+
+    @Test
+    public void testFailsOverToEquivalentVoice() {
+        router = newRouter();
+        Map<String, CloudTTSService> providers = Map.of(
+                "amazon", provider("amazon", Behavior.FAIL),
+                "google", provider("google", Behavior.ANSWER));
+
+        SynthesisResult result = router.synthesize(joanna(), name -> Optional.ofNullable(providers.get(name)));
+
+        assertEquals("google", result.getProvider());
+        assertEquals("en-US-Wavenet-A", voicesRequested.get("google"));
+        assertEquals("google", new String(result.getAudio().toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSlowPrimaryIsHedgedAndCancelled() throws Exception {
+        properties.setMinHedgeDelay(Duration.ofMillis(50));
+        properties.setDefaultHedgeDelay(Duration.ofMillis(100));
+        router = newRouter();
+        Map<String, CloudTTSService> providers = Map.of(
+                "amazon", provider("amazon", Behavior.STALL),
+                "google", provider("google", Behavior.ANSWER));
+
+        SynthesisResult result = router.synthesize(joanna(), name -> Optional.ofNullable(providers.get(name)));
+
+        assertEquals("google", result.getProvider());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "losing request should be cancelled");
+    }
+
+    @Test
+    public void testFastPrimaryIsNotHedged() {
+        router = newRouter();
+        Map<String, CloudTTSService> providers = Map.of(
+                "amazon", provider("amazon", Behavior.ANSWER),
+                "google", provider("google", Behavior.ANSWER));
+
+        SynthesisResult result = router.synthesize(joanna(), name -> Optional.ofNullable(providers.get(name)));
+
+        assertEquals("amazon", result.getProvider());
+        assertFalse(voicesRequested.containsKey("google"));
+    }
+
+    @Test
+    public void testFastestObservedProviderIsTriedFirst() {
+        router = newRouter();
+        Map<String, CloudTTSService> providers = Map.of(
+                "amazon", provider("amazon", Behavior.ANSWER),
+                "google", provider("google", Behavior.ANSWER));
+        TTSRequest wavenet = TTSRequest.builder().text("hello").provider("google").voiceId("en-US-Wavenet-A")
+                .languageCode("en-US").build();
+        router.synthesize(wavenet, name -> Optional.ofNullable(providers.get(name)));
+        voicesRequested.clear();
+
+        // Only google has latency samples, so it outranks the requested provider
+        SynthesisResult result = router.synthesize(joanna(), name -> Optional.ofNullable(providers.get(name)));
+
+        assertEquals("google", result.getProvider());
+        assertFalse(voicesRequested.containsKey("amazon"));
+    }
+
+    @Test
+    public void testStreamFailsOverBeforeAnyAudioIsWritten() throws IOException {
+        router = newRouter();
+        Map<String, CloudTTSService> providers = Map.of(
+                "amazon", provider("amazon", Behavior.FAIL),
+                "google", provider("google", Behavior.ANSWER));
+        Map<String, LongAdder> synthesized = new ConcurrentHashMap<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        String servedBy = router.streamSpeech(joanna(), name -> Optional.ofNullable(providers.get(name)), out,
+                provider -> synthesized.computeIfAbsent(provider, p -> new LongAdder()));
+
+        assertEquals("google", servedBy);
+        assertEquals("google", out.toString(StandardCharsets.UTF_8));
+        assertEquals(5, synthesized.get("google").sum());
+        assertEquals(0, synthesized.get("amazon").sum());
+    }
+
+    private ProviderRouter newRouter() {
+        return new ProviderRouter(properties, new VoiceService(), new SimpleMeterRegistry());
+    }
+
+    private static TTSRequest joanna() {
+        return TTSRequest.builder().text("hello").provider("amazon").voiceId("Joanna").languageCode("en-US").build();
+    }
+
+    private enum Behavior { ANSWER, FAIL, STALL }
+
+    private CloudTTSService provider(String name, Behavior behavior) {
+        return new CloudTTSService() {
+            @Override
+            public byte[] synthesizeSpeech(TTSRequest request) {
+                voicesRequested.put(name, request.getVoiceId());
+                if (behavior == Behavior.FAIL) {
+                    throw new IllegalStateException(name + " is down");
+                }
+                if (behavior == Behavior.STALL) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw new RuntimeException(e);
+                    }
+                }
+                return name.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String getProviderName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.ttsapp.service.segment;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextSegmenterTest {
+
+    @Test
+    public void testPacksWholeSentencesUpToTheLimit() {
+        String text = "First one here. Second one here. Third one here.";
+        assertEquals(List.of("First one here. Second one here.", "Third one here."),
+                TextSegmenter.segment(text, "en-US", new SegmentLimits(35, 0)));
+    }
+
+    @Test
+    public void testEditKeepsTheBoundariesOfOtherChunks() {
+        // 100 of these fill a default chunk to the last character, so packing chunks full would shift them all
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            text.append(String.format("Sentence %03d talks about topic %02d here. ", i, i * 7 % 13));
+        }
+        List<String> original = TextSegmenter.segment(text.toString(), "en", SegmentLimits.DEFAULT);
+        text.insert(text.indexOf("talks"), "really ");
+        List<String> edited = TextSegmenter.segment(text.toString(), "en", SegmentLimits.DEFAULT);
+
+        assertEquals(original.size(), edited.size());
+        assertEquals(original.subList(1, original.size()), edited.subList(1, edited.size()));
+    }
+
+    @Test
+    public void testChunksStayNearlyFull() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 100_000) {
+            int words = 3 + random.nextInt(25);
+            for (int i = 0; i < words; i++) {
+                text.append(i == 0 ? "Word" : " word").append(random.nextInt(1000));
+            }
+            text.append(random.nextInt(20) == 0 ? ".\n" : ". ");
+        }
+        List<String> chunks = TextSegmenter.segment(text.toString(), "en", SegmentLimits.DEFAULT);
+
+        // Every chunk is a round trip to the provider, so anchoring must not leave them much below the limit
+        long filled = chunks.subList(0, chunks.size() - 1).stream().mapToInt(String::length).sum();
+        double fill = (double) filled / ((chunks.size() - 1) * SegmentLimits.DEFAULT.maxChars());
+        assertTrue(fill > 0.9, "chunks are only " + fill + " full");
+    }
+
+    @Test
+    public void testDoesNotSplitAfterAbbreviations() {
+        String text = "Mr. Smith met Dr. Jones today. J. R. R. Tolkien wrote it.";
+        assertEquals(List.of("Mr. Smith met Dr. Jones today.", "J. R. R. Tolkien wrote it."),
+                TextSegmenter.segment(text, "en", new SegmentLimits(40, 0)));
+    }
+
+    @Test
+    public void testLongSentenceIsSplitBetweenWords() {
+        List<String> chunks = TextSegmenter.segment("one two three four five six", null, new SegmentLimits(10, 0));
+        assertEquals(List.of("one two", "three four", "five six"), chunks);
+    }
+
+    @Test
+    public void testByteLimitCountsMultiByteCharacters() {
+        // Each of these characters is three UTF-8 bytes
+        String text = "日本語です。もう一つの文です。";
+        SegmentLimits limits = new SegmentLimits(100, 27);
+        List<String> chunks = TextSegmenter.segment(text, "ja", limits);
+
+        assertEquals(List.of("日本語です。", "もう一つの文です。"), chunks);
+        for (String chunk : chunks) {
+            assertTrue(chunk.getBytes(StandardCharsets.UTF_8).length <= 27);
+        }
+    }
+
+    @Test
+    public void testSsmlElementsAreClosedAndReopenedAcrossChunks() {
+        String ssml = "<speak><prosody rate=\"slow\">First sentence here. Second sentence here.</prosody></speak>";
+        List<String> chunks = TextSegmenter.segment(ssml, "en-US", new SegmentLimits(70, 0));
+
+        assertEquals(List.of(
+                "<speak><prosody rate=\"slow\">First sentence here.</prosody></speak>",
+                "<speak><prosody rate=\"slow\">Second sentence here.</prosody></speak>"), chunks);
+    }
+
+    @Test
+    public void testSsmlChunksFitTheLimitIncludingMarkup() {
+        StringBuilder ssml = new StringBuilder("<speak>");
+        for (int i = 0; i < 50; i++) {
+            ssml.append("<s>Sentence <emphasis>number</emphasis> ").append(i).append(".</s><break time=\"300ms\"/>");
+        }
+        ssml.append("</speak>");
+        SegmentLimits limits = new SegmentLimits(200, 190);
+
+        List<String> chunks = TextSegmenter.segment(ssml.toString(), "en-US", limits);
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(limits.fits(chunk), chunk);
+            assertTrue(chunk.startsWith("<speak>") && chunk.endsWith("</speak>"), chunk);
+            // Sentence elements are never split
+            assertEquals(count(chunk, "<s>"), count(chunk, "</s>"), chunk);
+        }
+    }
+
+    @Test
+    public void testEntitiesAreNotSplit() {
+        String ssml = "<speak>Fish &amp; chips &amp; peas</speak>";
+        for (String chunk : TextSegmenter.segment(ssml, "en", new SegmentLimits(24, 0))) {
+            assertTrue(count(chunk, "&") == count(chunk, "&amp;"), chunk);
+        }
+    }
+
+    @Test
+    public void testTagLargerThanLimitIsRejected() {
+        String ssml = "<speak><voice name=\"en-US-AVeryLongVoiceNameIndeed\">Hi</voice></speak>";
+        assertThrows(IllegalArgumentException.class,
+                () -> TextSegmenter.segment(ssml, "en", new SegmentLimits(30, 0)));
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}